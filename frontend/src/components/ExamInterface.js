@@ -8,6 +8,8 @@ const ExamInterface = ({ examId, onComplete, user }) => {
   const [currentQuestion, setCurrentQuestion] = useState(0);
   const [loading, setLoading] = useState(true);
   const [submitting, setSubmitting] = useState(false);
+  const [attemptId, setAttemptId] = useState(null);
+  const [startError, setStartError] = useState(null);
 
   useEffect(() => {
     fetchExam();
@@ -19,6 +21,19 @@ const ExamInterface = ({ examId, onComplete, user }) => {
       const response = await axios.get(`http://localhost:8080/api/student/exam/${examId}`);
       setExam(response.data);
       setTimeLeft(response.data.duration * 60);
+      // The server owns the deadline; resume the countdown from it
+      try {
+        const attempt = await axios.post(`http://localhost:8080/api/student/exam/${examId}/start`, null, {
+          params: { studentId: user.userId }
+        });
+        setAttemptId(attempt.data.attemptId);
+        setAnswers(attempt.data.answers || {});
+        setTimeLeft(Math.max(0, Math.floor((new Date(attempt.data.deadline) - Date.now()) / 1000)));
+      } catch (error) {
+        // Without an attempt the server cannot enforce the deadline, so the exam cannot be submitted
+        console.error('Error starting exam attempt:', error);
+        setStartError('This exam could not be started. It may already be submitted or no longer active.');
+      }
     } catch (error) {
       console.error('Error fetching exam:', error);
       // Fallback to mock data
@@ -34,6 +49,7 @@ const ExamInterface = ({ examId, onComplete, user }) => {
       };
       setExam(mockExam);
       setTimeLeft(mockExam.duration * 60);
+      setStartError('This exam could not be loaded, so answers cannot be submitted.');
     } finally {
       setLoading(false);
     }
@@ -48,23 +64,44 @@ const ExamInterface = ({ examId, onComplete, user }) => {
     }
   }, [timeLeft]);
 
+  useEffect(() => {
+    if (!attemptId || Object.keys(answers).length === 0) return;
+    const save = setTimeout(() => {
+      axios.put(`http://localhost:8080/api/student/attempt/${attemptId}/answers`, answers, {
+        params: { studentId: user.userId }
+      }).catch((error) => console.error('Error saving answers:', error));
+    }, 2000);
+    return () => clearTimeout(save);
+  }, [answers, attemptId]);
+
   const handleAnswer = (questionId, answer) => {
     setAnswers({ ...answers, [questionId]: answer });
   };
 
   const submitExam = async () => {
     if (submitting) return;
+    if (!attemptId) {
+      alert(startError || 'This exam attempt has not been started.');
+      return;
+    }
     
     setSubmitting(true);
     try {
       const response = await axios.post('http://localhost:8080/api/student/submit-exam', {
         studentId: user.userId,
         examId,
+        attemptId,
         answers
       });
       alert(`Exam submitted! Score: ${response.data.score}%`);
       onComplete();
     } catch (error) {
+      if (error.response && error.response.status === 429) {
+        // Submission queue is full; answers are saved, retry when the server asks
+        const retryAfter = parseInt(error.response.headers['retry-after'], 10) || 5;
+        setTimeout(submitExam, retryAfter * 1000);
+        return;
+      }
       console.error('Error submitting exam:', error);
       alert('Error submitting exam. Please try again.');
     } finally {
@@ -136,6 +173,11 @@ const ExamInterface = ({ examId, onComplete, user }) => {
       </div>
 
       <div className="max-w-4xl mx-auto px-6 py-8">
+        {startError && (
+          <div className="mb-6 p-4 bg-red-50 border border-red-200 rounded-xl text-sm text-red-700">
+            {startError}
+          </div>
+        )}
         <div className="grid grid-cols-1 lg:grid-cols-4 gap-8">
           {/* Question Navigation Sidebar */}
           <div className="lg:col-span-1">
@@ -225,7 +267,7 @@ const ExamInterface = ({ examId, onComplete, user }) => {
                   {currentQuestion === exam.questions.length - 1 ? (
                     <button
                       onClick={submitExam}
-                      disabled={submitting}
+                      disabled={submitting || !attemptId}
                       className="bg-green-600 hover:bg-green-700 text-white font-medium px-8 py-3 rounded-xl transition-colors duration-200 disabled:opacity-50 disabled:cursor-not-allowed"
                     >
                       {submitting ? (
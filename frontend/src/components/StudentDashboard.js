@@ -6,6 +6,7 @@ const StudentDashboard = ({ user }) => {
   const [activeTab, setActiveTab] = useState('exams');
   const [exams, setExams] = useState([]);
   const [results, setResults] = useState([]);
+  const [resultsCursor, setResultsCursor] = useState(null);
   const [activeExam, setActiveExam] = useState(null);
   const [loading, setLoading] = useState(true);
 
@@ -47,10 +48,13 @@ const StudentDashboard = ({ user }) => {
     }
   };
 
-  const loadResults = async () => {
+  const loadResults = async (cursor = null) => {
     try {
-      const response = await axios.get('http://localhost:8080/api/student/results/' + user.userId);
-      setResults(response.data);
+      const cursorParam = cursor ? '&cursor=' + encodeURIComponent(cursor) : '';
+      const response = await axios.get('http://localhost:8080/api/student/results/' + user.userId + '?includeText=true' + cursorParam);
+      // Later pages are appended to the rows already shown
+      setResults(prev => cursor ? [...prev, ...response.data.items] : response.data.items);
+      setResultsCursor(response.data.nextCursor);
     } catch (error) {
       console.error('Error loading results:', error);
     }
@@ -133,7 +137,7 @@ const StudentDashboard = ({ user }) => {
                         <svg className="w-4 h-4 mr-1.5" fill="none" stroke="currentColor" viewBox="0 0 24 24">
                           <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M8.228 9c.549-1.165 2.03-2 3.772-2 2.21 0 4 1.343 4 3 0 1.4-1.278 2.575-3.006 2.907-.542.104-.994.54-.994 1.093m0 3h.01M21 12a9 9 0 11-18 0 9 9 0 0118 0z" />
                         </svg>
-                        <span>{exam.questions?.length || 0} questions</span>
+                        <span>{exam.questionCount || 0} questions</span>
                       </div>
                     </div>
                     
@@ -212,6 +216,16 @@ const StudentDashboard = ({ user }) => {
                   })}
                 </tbody>
               </table>
+              {resultsCursor && (
+                <div className="px-6 py-4 border-t border-gray-200 text-center">
+                  <button
+                    onClick={() => loadResults(resultsCursor)}
+                    className="btn-secondary"
+                  >
+                    Load more
+                  </button>
+                </div>
+              )}
             </div>
           ) : (
             <div className="px-6 py-16 text-center">
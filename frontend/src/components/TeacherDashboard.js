@@ -36,6 +36,7 @@ const TeacherDashboard = ({ user }) => {
   const [aiStep, setAiStep] = useState(1);
   const [selectedExamResults, setSelectedExamResults] = useState(null);
   const [examResults, setExamResults] = useState([]);
+  const [examResultsPage, setExamResultsPage] = useState({ nextCursor: null, isAiCorrection: false });
 
   useEffect(() => {
     loadExams();
@@ -97,13 +98,15 @@ const TeacherDashboard = ({ user }) => {
     }
   };
 
-  const loadExamResults = async (examId, isAiCorrection = false) => {
+  const loadExamResults = async (examId, isAiCorrection = false, cursor = null) => {
     try {
       console.log('Loading results for examId:', examId, 'isAiCorrection:', isAiCorrection);
-      const response = await axios.get(`http://localhost:8080/api/teacher/results/${examId}`);
+      const cursorParam = cursor ? `&cursor=${encodeURIComponent(cursor)}` : '';
+      const response = await axios.get(`http://localhost:8080/api/teacher/results/${examId}?includeText=true${cursorParam}`);
       console.log('API response:', response.data);
+      const results = response.data.items;
       
-      if (response.data.length === 0) {
+      if (results.length === 0 && !cursor) {
         if (isAiCorrection) {
           alert('No AI correction results found for this exam.');
         } else {
@@ -112,7 +115,7 @@ const TeacherDashboard = ({ user }) => {
         return;
       }
       
-      const resultsWithNames = await Promise.all(response.data.map(async (result) => {
+      const resultsWithNames = await Promise.all(results.map(async (result) => {
         try {
           // For AI corrections, the studentId might be synthetic or the student name might be in extractedText
           if (isAiCorrection && result.extractedText) {
@@ -127,7 +130,9 @@ const TeacherDashboard = ({ user }) => {
           return { ...result, studentName: isAiCorrection ? `Student ${result.studentId}` : 'Unknown Student' };
         }
       }));
-      setExamResults(resultsWithNames);
+      // Later pages are appended to the rows already shown
+      setExamResults(prev => cursor ? [...prev, ...resultsWithNames] : resultsWithNames);
+      setExamResultsPage({ nextCursor: response.data.nextCursor, isAiCorrection });
       setSelectedExamResults(examId);
     } catch (error) {
       console.error('Error loading results:', error);
@@ -142,6 +147,7 @@ const TeacherDashboard = ({ user }) => {
   const closeResultsModal = () => {
     setSelectedExamResults(null);
     setExamResults([]);
+    setExamResultsPage({ nextCursor: null, isAiCorrection: false });
   };
 
   const addQuestion = () => {
@@ -895,7 +901,7 @@ const TeacherDashboard = ({ user }) => {
                               </div>
                               <div>
                                 <span className="text-gray-500">Questions:</span>
-                                <span className="ml-2 font-medium">{exam.questions?.length || 0}</span>
+                                <span className="ml-2 font-medium">{exam.questionCount || 0}</span>
                               </div>
                             </div>
                           </div>
@@ -1057,7 +1063,7 @@ const TeacherDashboard = ({ user }) => {
                         </svg>
                         <p className="text-xs font-medium text-gray-500 uppercase tracking-wide">Questions</p>
                       </div>
-                      <p className="text-lg font-semibold text-gray-900">{exam.questions ? exam.questions.length : 0}</p>
+                      <p className="text-lg font-semibold text-gray-900">{exam.questionCount || 0}</p>
                     </div>
                   </div>
                   
@@ -1175,14 +1181,24 @@ const TeacherDashboard = ({ user }) => {
                 <div className="p-6 border-t border-gray-200 bg-gray-50">
                   <div className="flex justify-between items-center">
                     <div className="text-sm text-gray-600">
-                      Total submissions: {examResults.length}
+                      {examResultsPage.nextCursor ? 'Showing' : 'Total'} submissions: {examResults.length}
+                    </div>
+                    <div className="flex space-x-3">
+                      {examResultsPage.nextCursor && (
+                        <button 
+                          onClick={() => loadExamResults(selectedExamResults, examResultsPage.isAiCorrection, examResultsPage.nextCursor)}
+                          className="btn-secondary"
+                        >
+                          Load more
+                        </button>
+                      )}
+                      <button 
+                        onClick={closeResultsModal}
+                        className="btn-secondary"
+                      >
+                        Close
+                      </button>
                     </div>
-                    <button 
-                      onClick={closeResultsModal}
-                      className="btn-secondary"
-                    >
-                      Close
-                    </button>
                   </div>
                 </div>
               </div>
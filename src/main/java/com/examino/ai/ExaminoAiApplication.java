@@ -2,8 +2,10 @@ package com.examino.ai;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ExaminoAiApplication {
     public static void main(String[] args) {
         SpringApplication.run(ExaminoAiApplication.class, args);
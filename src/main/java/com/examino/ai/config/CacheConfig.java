@@ -0,0 +1,61 @@
+package com.examino.ai.config;
+
+import com.examino.ai.model.Exam;
+import com.examino.ai.model.Question;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String EXAM_REGION = Exam.class.getName();
+    public static final String EXAM_QUESTIONS_REGION = Exam.class.getName() + ".questions";
+    public static final String QUESTION_REGION = Question.class.getName();
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Value("${cache.exam.max-entries:2000}")
+    private long examMaxEntries;
+
+    @Value("${cache.exam.ttl-minutes:60}")
+    private long examTtlMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        
+        OptionalLong ttl = OptionalLong.of(TimeUnit.MINUTES.toNanos(examTtlMinutes));
+        cacheManager.createCache(EXAM_REGION, regionConfig(examMaxEntries, ttl));
+        cacheManager.createCache(EXAM_QUESTIONS_REGION, regionConfig(examMaxEntries, ttl));
+        cacheManager.createCache(QUESTION_REGION, regionConfig(examMaxEntries * 50, ttl));
+        cacheManager.createCache(QUERY_RESULTS_REGION, regionConfig(examMaxEntries, ttl));
+        // Timestamps must outlive every cached query result, so this region never expires
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, regionConfig(10_000, OptionalLong.empty()));
+        
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private CaffeineConfiguration<Object, Object> regionConfig(long maximumSize, OptionalLong expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maximumSize));
+        config.setExpireAfterWrite(expireAfterWriteNanos);
+        config.setStoreByValue(false);
+        config.setStatisticsEnabled(true);
+        return config;
+    }
+}
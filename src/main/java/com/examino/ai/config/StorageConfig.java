@@ -0,0 +1,58 @@
+package com.examino.ai.config;
+
+import com.examino.ai.service.BlobStore;
+import com.examino.ai.service.InMemoryBlobStore;
+import com.examino.ai.service.LocalBlobStore;
+import com.examino.ai.service.S3BlobStore;
+import com.examino.ai.service.TieredBlobStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Configuration
+public class StorageConfig {
+
+    public static final Path UPLOAD_ROOT = Paths.get("uploads").toAbsolutePath().normalize();
+    public static final Path TEMP_LOCATION = UPLOAD_ROOT.resolve(".tmp");
+
+    // local keeps blobs under uploads/; s3 and memory are remote tiers behind the disk cache
+    @Value("${storage.backend:local}")
+    private String backend;
+
+    @Value("${storage.s3.prefix:blobs}")
+    private String s3Prefix;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${storage.cache.max-bytes:2147483648}")
+    private long cacheMaxBytes;
+
+    @Value("${storage.cache.pin-seconds:600}")
+    private long cachePinSeconds;
+
+    @Bean
+    public BlobStore blobStore(ObjectProvider<S3Client> s3Client) throws IOException {
+        switch (backend) {
+            case "local":
+                return new LocalBlobStore(UPLOAD_ROOT);
+            case "s3":
+                return tiered(new S3BlobStore(s3Client.getObject(), bucketName, s3Prefix));
+            case "memory":
+                return tiered(new InMemoryBlobStore());
+            default:
+                throw new IllegalStateException("Unknown storage.backend: " + backend);
+        }
+    }
+
+    private BlobStore tiered(BlobStore remote) throws IOException {
+        return new TieredBlobStore(remote, UPLOAD_ROOT.resolve(".cache"), TEMP_LOCATION, cacheMaxBytes,
+                cachePinSeconds * 1000);
+    }
+}
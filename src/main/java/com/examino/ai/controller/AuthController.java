@@ -2,8 +2,11 @@ package com.examino.ai.controller;
 
 import com.examino.ai.dto.LoginRequest;
 import com.examino.ai.dto.LoginResponse;
+import com.examino.ai.exception.ServiceBusyException;
 import com.examino.ai.service.AuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +25,8 @@ public class AuthController {
         try {
             LoginResponse response = authService.authenticate(request.getUsername(), request.getPassword(), request.getRole());
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(LoginResponse.builder()
@@ -36,6 +41,8 @@ public class AuthController {
         try {
             LoginResponse response = authService.register(request);
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(LoginResponse.builder()
@@ -83,4 +90,13 @@ public class AuthController {
         }
         return ResponseEntity.notFound().build();
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<LoginResponse> busy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(LoginResponse.builder()
+                        .success(false)
+                        .message(e.getMessage())
+                        .build());
+    }
+}
@@ -4,6 +4,7 @@ import com.examino.ai.dto.ExamEvaluationResponse;
 import com.examino.ai.model.ExamResult;
 import com.examino.ai.service.BedrockService;
 import com.examino.ai.service.DynamoDbService;
+import com.examino.ai.service.RubricCacheService;
 import com.examino.ai.service.S3Service;
 import com.examino.ai.service.TextractService;
 import lombok.RequiredArgsConstructor;
@@ -27,15 +28,45 @@ public class ExamController {
     private final TextractService textractService;
     private final BedrockService bedrockService;
     private final DynamoDbService dynamoDbService;
+    private final RubricCacheService rubricCacheService;
+
+    @PostMapping("/rubrics")
+    public ResponseEntity<?> compileRubric(@RequestBody String rubricJson) {
+        try {
+            RubricCacheService.CompiledRubric rubric = rubricCacheService.compile(rubricJson);
+            return ResponseEntity.ok(Map.of(
+                "rubricId", rubric.rubricId(),
+                "criteria", rubric.criteriaCount()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 
     @PostMapping("/evaluate")
     public ResponseEntity<ExamEvaluationResponse> evaluateExam(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("rubric") String rubricJson,
+            @RequestParam(value = "rubric", required = false) String rubricJson,
+            @RequestParam(value = "rubricId", required = false) String rubricId,
             @RequestParam(value = "studentId", required = false) String studentId) {
         
+        // Rubric problems are reported before any upload or OCR work is spent on the sheet.
+        // Rubric ids expire from the cache, so a rubric sent alongside the id is used as the fallback.
+        RubricCacheService.CompiledRubric rubric;
+        try {
+            rubric = resolveRubric(rubricId, rubricJson);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ExamEvaluationResponse.builder()
+                            .studentId(studentId)
+                            .score(0)
+                            .feedback("Invalid rubric: " + e.getMessage())
+                            .extractedText("")
+                            .build());
+        }
+        
         try {
-            log.info("Starting exam evaluation for file: {}", file.getOriginalFilename());
+            log.info("Starting exam evaluation for file: {} with rubric {}", file.getOriginalFilename(), rubric.rubricId());
             
             // Generate student ID if not provided
             if (studentId == null || studentId.trim().isEmpty()) {
@@ -48,8 +79,8 @@ public class ExamController {
             // Step 2: Extract text using Textract
             String extractedText = textractService.extractTextFromImage(s3ObjectKey);
             
-            // Step 3: Grade using Bedrock (Claude 3 Haiku)
-            Map<String, Object> gradingResult = bedrockService.gradeExam(extractedText, rubricJson);
+            // Step 3: Grade using Bedrock with the compiled rubric
+            Map<String, Object> gradingResult = bedrockService.gradeExam(extractedText, rubric);
             
             Integer score = (Integer) gradingResult.get("score");
             String feedback = (String) gradingResult.get("feedback");
@@ -90,6 +121,21 @@ public class ExamController {
         }
     }
 
+    private RubricCacheService.CompiledRubric resolveRubric(String rubricId, String rubricJson) {
+        if (rubricId == null || rubricId.isBlank()) {
+            return rubricCacheService.compile(rubricJson);
+        }
+        try {
+            return rubricCacheService.get(rubricId);
+        } catch (IllegalArgumentException e) {
+            if (rubricJson == null || rubricJson.isBlank()) {
+                throw new IllegalArgumentException(e.getMessage() + "; resend the rubric to compile it again");
+            }
+            log.info("Rubric {} is no longer cached, compiling the rubric sent with the request", rubricId);
+            return rubricCacheService.compile(rubricJson);
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "healthy", "service", "AI Examino System"));
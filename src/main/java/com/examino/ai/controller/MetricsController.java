@@ -0,0 +1,134 @@
+package com.examino.ai.controller;
+
+import com.examino.ai.service.BedrockMessagesCodec;
+import com.examino.ai.service.CohortGradingService;
+import com.examino.ai.service.ExamAttemptService;
+import com.examino.ai.service.ExamCacheService;
+import com.examino.ai.service.FileDownloadService;
+import com.examino.ai.service.FileStorageService;
+import com.examino.ai.service.ModelRoutingService;
+import com.examino.ai.service.PasswordHashingService;
+import com.examino.ai.service.PlagiarismIndexService;
+import com.examino.ai.service.QuestionGradingService;
+import com.examino.ai.service.RubricCacheService;
+import com.examino.ai.service.SessionCacheService;
+import com.examino.ai.service.SessionSweeperService;
+import com.examino.ai.service.UserCacheService;
+import com.examino.ai.service.VectorAnswerScorer;
+import com.examino.ai.service.SessionTokenService;
+import com.examino.ai.service.StorageSweeperService;
+import com.examino.ai.service.SubmissionAdmissionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    private final ExamCacheService examCacheService;
+    private final SessionCacheService sessionCacheService;
+    private final SessionTokenService sessionTokenService;
+    private final PasswordHashingService passwordHashingService;
+    private final SessionSweeperService sessionSweeperService;
+    private final UserCacheService userCacheService;
+    private final FileDownloadService fileDownloadService;
+    private final FileStorageService fileStorageService;
+    private final StorageSweeperService storageSweeperService;
+    private final ExamAttemptService examAttemptService;
+    private final SubmissionAdmissionService submissionAdmissionService;
+    private final QuestionGradingService questionGradingService;
+    private final ModelRoutingService modelRoutingService;
+    private final BedrockMessagesCodec bedrockMessagesCodec;
+    private final RubricCacheService rubricCacheService;
+    private final CohortGradingService cohortGradingService;
+    private final PlagiarismIndexService plagiarismIndexService;
+    private final VectorAnswerScorer vectorAnswerScorer;
+
+    @GetMapping("/exam-cache")
+    public ResponseEntity<Map<String, Object>> getExamCacheStatistics() {
+        return ResponseEntity.ok(examCacheService.getStatistics());
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<Map<String, Object>> getSessionCacheStatistics() {
+        Map<String, Object> statistics = new HashMap<>(sessionCacheService.getStatistics());
+        statistics.put("revokedTokens", sessionTokenService.getRevokedCount());
+        statistics.putAll(sessionSweeperService.getStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStatistics() {
+        return ResponseEntity.ok(passwordHashingService.getStatistics());
+    }
+
+    @GetMapping("/user-cache")
+    public ResponseEntity<Map<String, Object>> getUserCacheStatistics() {
+        return ResponseEntity.ok(userCacheService.getStatistics());
+    }
+
+    @GetMapping("/downloads")
+    public ResponseEntity<Map<String, Object>> getDownloadStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("availablePermits", fileDownloadService.getAvailablePermits());
+        return ResponseEntity.ok(statistics);
+    }
+
+    @GetMapping("/storage")
+    public ResponseEntity<Map<String, Object>> getStorageStatistics() {
+        Map<String, Object> statistics = new HashMap<>(fileStorageService.getStatistics());
+        statistics.putAll(storageSweeperService.getStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+
+    @GetMapping("/exam-timers")
+    public ResponseEntity<Map<String, Object>> getExamTimerStatistics() {
+        return ResponseEntity.ok(examAttemptService.getStatistics());
+    }
+
+    @GetMapping("/submissions")
+    public ResponseEntity<Map<String, Object>> getSubmissionStatistics() {
+        return ResponseEntity.ok(submissionAdmissionService.getStatistics());
+    }
+
+    @GetMapping("/grading")
+    public ResponseEntity<Map<String, Object>> getGradingStatistics() {
+        return ResponseEntity.ok(questionGradingService.getStatistics());
+    }
+
+    @GetMapping("/model-routing")
+    public ResponseEntity<Map<String, Object>> getModelRoutingStatistics() {
+        return ResponseEntity.ok(modelRoutingService.getStatistics());
+    }
+
+    @GetMapping("/bedrock-codec")
+    public ResponseEntity<Map<String, Object>> getBedrockCodecStatistics() {
+        return ResponseEntity.ok(bedrockMessagesCodec.getStatistics());
+    }
+
+    @GetMapping("/rubrics")
+    public ResponseEntity<Map<String, Object>> getRubricStatistics() {
+        return ResponseEntity.ok(rubricCacheService.getStatistics());
+    }
+
+    @GetMapping("/cohort-grading")
+    public ResponseEntity<Map<String, Object>> getCohortGradingStatistics() {
+        return ResponseEntity.ok(cohortGradingService.getStatistics());
+    }
+
+    @GetMapping("/similarity-index")
+    public ResponseEntity<Map<String, Object>> getSimilarityIndexStatistics() {
+        return ResponseEntity.ok(plagiarismIndexService.getStatistics());
+    }
+
+    @GetMapping("/vector-scorer")
+    public ResponseEntity<Map<String, Object>> getVectorScorerStatistics() {
+        return ResponseEntity.ok(vectorAnswerScorer.getStatistics());
+    }
+}
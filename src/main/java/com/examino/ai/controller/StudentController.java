@@ -1,15 +1,29 @@
 package com.examino.ai.controller;
 
+import com.examino.ai.dto.ExamResultSummary;
+import com.examino.ai.dto.ExamSummary;
 import com.examino.ai.dto.ExamSubmissionRequest;
-import com.examino.ai.model.Exam;
+import com.examino.ai.dto.ResultPage;
+import com.examino.ai.dto.StoredFile;
+import com.examino.ai.model.ExamAttempt;
 import com.examino.ai.model.ExamResult;
+import com.examino.ai.exception.ServiceBusyException;
+import com.examino.ai.service.ExamPayloadService;
+import com.examino.ai.service.FileDownloadService;
 import com.examino.ai.service.StudentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/student")
@@ -18,21 +32,61 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final FileDownloadService fileDownloadService;
 
     @GetMapping("/available-exams")
-    public ResponseEntity<List<Exam>> getAvailableExams(@RequestParam String studentId) {
-        List<Exam> exams = studentService.getAvailableExamsForStudent(studentId);
+    public ResponseEntity<List<ExamSummary>> getAvailableExams(@RequestParam String studentId) {
+        List<ExamSummary> exams = studentService.getAvailableExamsForStudent(studentId);
         return ResponseEntity.ok(exams);
     }
 
     @GetMapping("/exam/{examId}")
-    public ResponseEntity<Exam> getExam(@PathVariable String examId) {
+    public ResponseEntity<byte[]> getExam(
+            @PathVariable String examId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExamPayloadService.SerializedExam payload;
         try {
-            Exam exam = studentService.getExamById(examId);
-            return ResponseEntity.ok(exam);
+            payload = studentService.getExamPayload(examId);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
+        
+        if (payload.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(payload.getEtag()).build();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(payload.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
+    }
+
+    @PostMapping("/exam/{examId}/start")
+    public ResponseEntity<ExamAttempt> startExam(@PathVariable String examId, @RequestParam String studentId) {
+        try {
+            return ResponseEntity.ok(studentService.startExamAttempt(studentId, examId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/attempt/{attemptId}/answers")
+    public ResponseEntity<Map<String, Object>> saveAnswers(@PathVariable String attemptId,
+                                                           @RequestParam String studentId,
+                                                           @RequestBody Map<String, String> answers) {
+        try {
+            ExamAttempt attempt = studentService.saveAttemptAnswers(studentId, attemptId, answers);
+            return ResponseEntity.ok(Map.of("attemptId", attempt.getAttemptId(),
+                    "deadline", attempt.getDeadline(), "savedAt", attempt.getLastSavedAt()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping("/submit-exam")
@@ -40,15 +94,35 @@ public class StudentController {
         try {
             ExamResult result = studentService.submitExam(request);
             return ResponseEntity.ok(result);
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
     @GetMapping("/results/{studentId}")
-    public ResponseEntity<List<ExamResult>> getStudentResults(@PathVariable String studentId) {
-        List<ExamResult> results = studentService.getStudentResults(studentId);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<ResultPage<ExamResultSummary>> getStudentResults(
+            @PathVariable String studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeText) {
+        try {
+            return ResponseEntity.ok(studentService.getStudentResults(studentId, cursor, limit, includeText));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/result/{resultId}")
+    public ResponseEntity<ExamResult> getStudentResult(@PathVariable String resultId, @RequestParam String studentId) {
+        try {
+            return ResponseEntity.ok(studentService.getStudentResult(studentId, resultId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/dashboard/{studentId}")
@@ -58,14 +132,20 @@ public class StudentController {
     }
 
     @GetMapping("/download/my-answer/{examId}")
-    public ResponseEntity<Resource> downloadMyAnswer(@PathVariable String examId, @RequestParam String studentId) {
+    public void downloadMyAnswer(@PathVariable String examId, @RequestParam String studentId,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredFile file;
         try {
-            Resource resource = studentService.downloadStudentAnswer(studentId, examId);
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
+            file = studentService.downloadStudentAnswer(studentId, examId);
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        try {
+            fileDownloadService.serve(file.getPath(), file.getFileName(), request, response);
+        } catch (ServiceBusyException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage());
         }
     }
 }
\ No newline at end of file
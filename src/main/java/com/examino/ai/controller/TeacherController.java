@@ -1,15 +1,28 @@
 package com.examino.ai.controller;
 
 import com.examino.ai.dto.ExamRequest;
+import com.examino.ai.dto.ExamResultSummary;
+import com.examino.ai.dto.ExamSubmissionRequest;
+import com.examino.ai.dto.ExamSummary;
+import com.examino.ai.dto.ResultPage;
+import com.examino.ai.dto.StoredFile;
 import com.examino.ai.model.Exam;
 import com.examino.ai.model.ExamResult;
+import com.examino.ai.exception.ServiceBusyException;
+import com.examino.ai.service.FileDownloadService;
+import com.examino.ai.service.FileStorageMigrationService;
+import com.examino.ai.service.StudentService;
 import com.examino.ai.service.TeacherService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +33,9 @@ import java.util.Map;
 public class TeacherController {
 
     private final TeacherService teacherService;
+    private final FileDownloadService fileDownloadService;
+    private final FileStorageMigrationService fileStorageMigrationService;
+    private final StudentService studentService;
 
     @PostMapping("/create-exam")
     public ResponseEntity<Exam> createExam(@RequestBody ExamRequest request) {
@@ -32,8 +48,8 @@ public class TeacherController {
     }
 
     @GetMapping("/exams/{teacherId}")
-    public ResponseEntity<List<Exam>> getTeacherExams(@PathVariable String teacherId) {
-        List<Exam> exams = teacherService.getExamsByTeacher(teacherId);
+    public ResponseEntity<List<ExamSummary>> getTeacherExams(@PathVariable String teacherId) {
+        List<ExamSummary> exams = teacherService.getExamsByTeacher(teacherId);
         return ResponseEntity.ok(exams);
     }
 
@@ -49,28 +65,48 @@ public class TeacherController {
         }
     }
 
+    @PostMapping("/grade-cohort/{examId}")
+    public ResponseEntity<?> gradeCohort(@PathVariable String examId,
+                                         @RequestBody List<ExamSubmissionRequest> submissions) {
+        try {
+            List<ExamResult> results = studentService.gradeCohortSubmissions(examId, submissions);
+            return ResponseEntity.ok(results.stream()
+                    .map(result -> Map.of(
+                        "resultId", result.getResultId(),
+                        "studentId", result.getStudentId(),
+                        "score", result.getScore(),
+                        "grade", result.getGrade()
+                    ))
+                    .toList());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/download/question-paper/{examId}")
-    public ResponseEntity<Resource> downloadQuestionPaper(@PathVariable String examId) {
+    public void downloadQuestionPaper(@PathVariable String examId,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredFile file;
         try {
-            Resource resource = teacherService.downloadQuestionPaper(examId);
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
+            file = teacherService.downloadQuestionPaper(examId);
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        serveFile(file, request, response);
     }
 
     @GetMapping("/download/answer-paper/{resultId}")
-    public ResponseEntity<Resource> downloadAnswerPaper(@PathVariable String resultId) {
+    public void downloadAnswerPaper(@PathVariable String resultId,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredFile file;
         try {
-            Resource resource = teacherService.downloadAnswerPaper(resultId);
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
+            file = teacherService.downloadAnswerPaper(resultId);
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        serveFile(file, request, response);
     }
 
     @DeleteMapping("/delete-exam/{examId}")
@@ -84,9 +120,25 @@ public class TeacherController {
     }
 
     @GetMapping("/results/{examId}")
-    public ResponseEntity<List<ExamResult>> getExamResults(@PathVariable String examId) {
-        List<ExamResult> results = teacherService.getExamResults(examId);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<ResultPage<ExamResultSummary>> getExamResults(
+            @PathVariable String examId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeText) {
+        try {
+            return ResponseEntity.ok(teacherService.getExamResults(examId, cursor, limit, includeText));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/result/{resultId}")
+    public ResponseEntity<ExamResult> getExamResult(@PathVariable String resultId) {
+        try {
+            return ResponseEntity.ok(teacherService.getExamResult(resultId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/analytics/{examId}")
@@ -95,6 +147,35 @@ public class TeacherController {
         return ResponseEntity.ok(analytics);
     }
 
+    @GetMapping("/similarity/{examId}")
+    public ResponseEntity<Map<String, Object>> getSimilarityReport(
+            @PathVariable String examId,
+            @RequestParam(defaultValue = "1") int minMatchedQuestions,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(teacherService.getSimilarityReport(examId, minMatchedQuestions, Math.max(1, Math.min(limit, 1000))));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/analytics/{examId}/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildExamAnalytics(@PathVariable String examId) {
+        teacherService.rebuildExamAnalytics(examId);
+        return ResponseEntity.ok(teacherService.getExamAnalytics(examId));
+    }
+
+    @PostMapping("/analytics/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAllExamAnalytics() {
+        int rebuilt = teacherService.rebuildAllExamAnalytics();
+        return ResponseEntity.ok(Map.of("rebuiltExams", rebuilt));
+    }
+
+    @PostMapping("/storage/migrate")
+    public ResponseEntity<Map<String, Object>> migrateLegacyUploads() {
+        return ResponseEntity.ok(fileStorageMigrationService.migrateLegacyFiles());
+    }
+
     @GetMapping("/class-performance/{teacherId}")
     public ResponseEntity<Map<String, Object>> getClassPerformance(@PathVariable String teacherId) {
         Map<String, Object> performance = teacherService.getClassPerformance(teacherId);
@@ -119,4 +200,13 @@ public class TeacherController {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private void serveFile(StoredFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            fileDownloadService.serve(file.getPath(), file.getFileName(), request, response);
+        } catch (ServiceBusyException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage());
+        }
+    }
+}
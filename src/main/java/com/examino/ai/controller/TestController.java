@@ -1,5 +1,7 @@
 package com.examino.ai.controller;
 
+import com.examino.ai.service.AuthBenchmarkService;
+import com.examino.ai.service.CodecBenchmarkService;
 import com.examino.ai.service.GradingTestService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,12 +18,16 @@ import java.util.Map;
 public class TestController {
 
     private final GradingTestService gradingTestService;
+    private final AuthBenchmarkService authBenchmarkService;
+    private final CodecBenchmarkService codecBenchmarkService;
 
     @GetMapping("/grading")
-    public ResponseEntity<Map<String, Object>> testGrading() {
+    public ResponseEntity<Map<String, Object>> testGrading(@RequestParam(defaultValue = "ai") String grader) {
         try {
-            log.info("Running AI grading tests...");
-            Map<String, Object> results = gradingTestService.runGradingTests();
+            log.info("Running {} grading tests...", grader);
+            Map<String, Object> results = "local".equalsIgnoreCase(grader)
+                    ? gradingTestService.runLocalGradingTests()
+                    : gradingTestService.runGradingTests();
             return ResponseEntity.ok(results);
         } catch (Exception e) {
             log.error("Grading test failed", e);
@@ -30,6 +36,32 @@ public class TestController {
         }
     }
 
+    @GetMapping("/auth-benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkSessionValidation(
+            @RequestParam(defaultValue = "2000") int iterations) {
+        try {
+            log.info("Running session validation benchmark with {} iterations...", iterations);
+            return ResponseEntity.ok(authBenchmarkService.runSessionValidationBenchmark(Math.max(1, iterations)));
+        } catch (Exception e) {
+            log.error("Session validation benchmark failed", e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Benchmark failed: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/codec-benchmark")
+    public ResponseEntity<Map<String, Object>> benchmarkBedrockCodec(
+            @RequestParam(defaultValue = "20000") int iterations) {
+        try {
+            log.info("Running Bedrock codec benchmark with {} iterations...", iterations);
+            return ResponseEntity.ok(codecBenchmarkService.runCodecBenchmark(Math.max(1, iterations)));
+        } catch (Exception e) {
+            log.error("Bedrock codec benchmark failed", e);
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Benchmark failed: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         return ResponseEntity.ok(Map.of(
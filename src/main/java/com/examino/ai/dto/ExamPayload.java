@@ -0,0 +1,23 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Exam as sent to a student taking it: expected answers are never included.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamPayload {
+    private String examId;
+    private String title;
+    private String description;
+    private Integer duration;
+    private List<QuestionPayload> questions;
+}
@@ -0,0 +1,34 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamResultSummary {
+    private String resultId;
+    private String studentId;
+    private String examId;
+    private Integer score;
+    private String grade;
+    private String feedback;
+    private Integer totalQuestions;
+    private Integer correctAnswers;
+    private Integer wrongAnswers;
+    private Integer unanswered;
+    private Instant createdAt;
+    
+    // Only populated when the caller asks for it (includeText=true)
+    private String extractedText;
+
+    public ExamResultSummary(String resultId, String studentId, String examId, Integer score, String grade,
+                             String feedback, Integer totalQuestions, Integer correctAnswers,
+                             Integer wrongAnswers, Integer unanswered, Instant createdAt) {
+        this(resultId, studentId, examId, score, grade, feedback, totalQuestions, correctAnswers,
+                wrongAnswers, unanswered, createdAt, null);
+    }
+}
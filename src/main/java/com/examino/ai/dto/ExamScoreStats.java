@@ -0,0 +1,16 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamScoreStats {
+    private String examId;
+    private String title;
+    private Long submissions;
+    private Double averageScore;
+    private Long passed;
+}
@@ -14,5 +14,6 @@ import java.util.Map;
 public class ExamSubmissionRequest {
     private String studentId;
     private String examId;
+    private String attemptId; // set for timed attempts started through /exam/{examId}/start
     private Map<String, String> answers; // questionId -> answer
 }
\ No newline at end of file
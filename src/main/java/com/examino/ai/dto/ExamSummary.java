@@ -0,0 +1,22 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamSummary {
+    private String examId;
+    private String title;
+    private String description;
+    private Integer duration;
+    private String academicLevel;
+    private String grade;
+    private Integer questionCount;
+    private Boolean isActive;
+    private Instant createdAt;
+}
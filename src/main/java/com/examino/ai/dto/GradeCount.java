@@ -0,0 +1,13 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeCount {
+    private String grade;
+    private Long count;
+}
@@ -0,0 +1,17 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionPayload {
+    private String questionId;
+    private String questionText;
+    private Integer marks;
+    private String type;
+}
@@ -0,0 +1,18 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultPage<T> {
+    private List<T> items;
+    private String nextCursor; // null when there are no more pages
+    private int limit;
+}
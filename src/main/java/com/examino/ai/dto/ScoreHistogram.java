@@ -0,0 +1,22 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreHistogram {
+    private Long submissions;
+    private Long scoreSum;
+    private Integer minScore;
+    private Integer maxScore;
+    private Long passed;
+    private Long range90To100;
+    private Long range80To89;
+    private Long range70To79;
+    private Long range60To69;
+    private Long range50To59;
+    private Long rangeBelow50;
+}
@@ -0,0 +1,17 @@
+package com.examino.ai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentScoreStats {
+    private Long totalExams;
+    private Long scoreSum;
+    private Integer lowestScore;
+    private Integer highestScore;
+    private Long totalCorrect;
+    private Long totalWrong;
+}
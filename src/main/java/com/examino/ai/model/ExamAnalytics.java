@@ -0,0 +1,46 @@
+package com.examino.ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-exam score aggregates, maintained in the same transaction as every
+ * ExamResult write so analytics reads never touch the raw results.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "exam_analytics")
+public class ExamAnalytics {
+    @Id
+    private String examId;
+    
+    private long submissions;
+    private long scoreSum;
+    private Integer minScore;
+    private Integer maxScore;
+    private long passed;
+    
+    // Score histogram buckets
+    private long range90To100;
+    private long range80To89;
+    private long range70To79;
+    private long range60To69;
+    private long range50To59;
+    private long rangeBelow50;
+    
+    @Builder.Default
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "exam_analytics_grades", joinColumns = @JoinColumn(name = "exam_id"))
+    @MapKeyColumn(name = "grade")
+    @Column(name = "result_count")
+    private Map<String, Long> gradeCounts = new HashMap<>();
+}
@@ -0,0 +1,53 @@
+package com.examino.ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A student's timed sitting of an exam. The deadline is fixed when the
+ * attempt starts; ExamAttemptService auto-submits the saved answers if the
+ * student has not submitted by then.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "exam_attempts", indexes = {
+    @Index(name = "idx_exam_attempts_student_exam", columnList = "student_id, exam_id"),
+    @Index(name = "idx_exam_attempts_status", columnList = "status")
+})
+public class ExamAttempt {
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String SUBMITTING = "SUBMITTING";
+    public static final String SUBMITTED = "SUBMITTED";
+    public static final String AUTO_SUBMITTED = "AUTO_SUBMITTED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String attemptId;
+    
+    private String studentId;
+    private String examId;
+    private String status;
+    
+    private Instant startedAt;
+    private Instant deadline;
+    private Instant lastSavedAt;
+    private Instant submittedAt;
+    private String resultId;
+    
+    @Builder.Default
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "exam_attempt_answers", joinColumns = @JoinColumn(name = "attempt_id"))
+    @MapKeyColumn(name = "question_id")
+    @Column(name = "answer", columnDefinition = "TEXT")
+    private Map<String, String> answers = new HashMap<>();
+}
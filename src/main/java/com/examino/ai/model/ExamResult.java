@@ -14,7 +14,10 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "exam_results")
+@Table(name = "exam_results", indexes = {
+        @Index(name = "idx_exam_results_exam_created", columnList = "exam_id, created_at, result_id"),
+        @Index(name = "idx_exam_results_student_created", columnList = "student_id, created_at, result_id")
+})
 public class ExamResult {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -0,0 +1,39 @@
+package com.examino.ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Reference count for a content-addressed upload. A blob whose count drops
+ * to zero is removed from disk by StorageSweeperService after a grace period.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stored_blobs", indexes = {
+    @Index(name = "idx_stored_blobs_released", columnList = "ref_count, released_at")
+})
+public class StoredBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    private long size;
+    
+    @Column(name = "ref_count")
+    private long refCount;
+    
+    @Column(name = "created_at")
+    private Instant createdAt;
+    
+    // Set when refCount reaches zero, cleared when the blob is referenced again
+    @Column(name = "released_at")
+    private Instant releasedAt;
+}
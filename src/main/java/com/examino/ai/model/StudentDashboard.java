@@ -0,0 +1,43 @@
+package com.examino.ai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-student dashboard totals, updated incrementally on each submission so
+ * the dashboard is served from a single row instead of the full result history.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "student_dashboards")
+public class StudentDashboard {
+    @Id
+    private String studentId;
+    
+    private long totalExams;
+    private long scoreSum;
+    private Integer highestScore;
+    private Integer lowestScore;
+    private long totalCorrect;
+    private long totalWrong;
+    
+    // Most recent result ids, newest first, bounded to StudentDashboardService.RECENT_RESULTS
+    @Column(length = 200)
+    private String recentResultIds;
+    
+    @Builder.Default
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "student_dashboard_grades", joinColumns = @JoinColumn(name = "student_id"))
+    @MapKeyColumn(name = "grade")
+    @Column(name = "result_count")
+    private Map<String, Integer> gradeCounts = new HashMap<>();
+}
@@ -1,5 +1,6 @@
 package com.examino.ai.model;
 
+import com.examino.ai.service.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +12,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@EntityListeners(UserCacheInvalidationListener.class)
 @Table(name = "users")
 public class User {
     @Id
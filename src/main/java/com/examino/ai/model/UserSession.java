@@ -13,7 +13,10 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "user_sessions")
+@Table(name = "user_sessions", indexes = {
+        @Index(name = "idx_user_sessions_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_user_sessions_is_active", columnList = "is_active")
+})
 public class UserSession {
     @Id
     private String sessionId;
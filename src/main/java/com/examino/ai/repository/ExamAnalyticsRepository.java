@@ -0,0 +1,28 @@
+package com.examino.ai.repository;
+
+import com.examino.ai.model.ExamAnalytics;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExamAnalyticsRepository extends JpaRepository<ExamAnalytics, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ExamAnalytics a WHERE a.examId = :examId")
+    Optional<ExamAnalytics> findByIdForUpdate(@Param("examId") String examId);
+
+    // Creates an empty row if none exists. Unlike INSERT IGNORE, a duplicate takes the row's exclusive
+    // lock rather than a shared one, so concurrent writers queue on the row instead of deadlocking
+    @Modifying
+    @Query(value = "INSERT INTO exam_analytics (exam_id, submissions, score_sum, passed, " +
+                   "range90to100, range80to89, range70to79, range60to69, range50to59, range_below50) " +
+                   "VALUES (:examId, 0, 0, 0, 0, 0, 0, 0, 0, 0) ON DUPLICATE KEY UPDATE exam_id = exam_id",
+           nativeQuery = true)
+    void insertIfAbsent(@Param("examId") String examId);
+}
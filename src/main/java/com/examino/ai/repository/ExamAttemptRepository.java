@@ -0,0 +1,36 @@
+package com.examino.ai.repository;
+
+import com.examino.ai.model.ExamAttempt;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExamAttemptRepository extends JpaRepository<ExamAttempt, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ExamAttempt a WHERE a.attemptId = :attemptId")
+    Optional<ExamAttempt> findByIdForUpdate(@Param("attemptId") String attemptId);
+
+    Optional<ExamAttempt> findFirstByStudentIdAndExamIdAndStatus(String studentId, String examId, String status);
+
+    boolean existsByStudentIdAndExamIdAndStatusIn(String studentId, String examId, Collection<String> statuses);
+
+    @Query("SELECT a.attemptId, a.deadline FROM ExamAttempt a WHERE a.status = :status")
+    List<Object[]> findIdsAndDeadlinesByStatus(@Param("status") String status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExamAttempt a SET a.status = :to WHERE a.status = :from")
+    int updateStatus(@Param("from") String from, @Param("to") String to);
+
+    List<ExamAttempt> findByExamIdAndResultIdIsNotNull(String examId);
+}
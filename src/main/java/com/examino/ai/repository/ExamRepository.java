@@ -1,13 +1,45 @@
 package com.examino.ai.repository;
 
+import com.examino.ai.dto.ExamSummary;
 import com.examino.ai.model.Exam;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface ExamRepository extends JpaRepository<Exam, String> {
-    List<Exam> findByTeacherId(String teacherId);
-    List<Exam> findByAcademicLevelAndGradeAndIsActiveTrue(String academicLevel, String grade);
+    // Listing queries return summaries so the question graph is never loaded
+    @Query("SELECT new com.examino.ai.dto.ExamSummary(e.examId, e.title, e.description, e.duration, " +
+           "e.academicLevel, e.grade, SIZE(e.questions), e.isActive, e.createdAt) " +
+           "FROM Exam e WHERE e.teacherId = :teacherId")
+    List<ExamSummary> findByTeacherId(@Param("teacherId") String teacherId);
+
+    @Query("SELECT new com.examino.ai.dto.ExamSummary(e.examId, e.title, e.description, e.duration, " +
+           "e.academicLevel, e.grade, SIZE(e.questions), e.isActive, e.createdAt) " +
+           "FROM Exam e WHERE e.academicLevel = :academicLevel AND e.grade = :grade AND e.isActive = true")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<ExamSummary> findByAcademicLevelAndGradeAndIsActiveTrue(@Param("academicLevel") String academicLevel,
+                                                                 @Param("grade") String grade);
+
+    @Query("SELECT new com.examino.ai.dto.ExamSummary(e.examId, e.title, e.description, e.duration, " +
+           "e.academicLevel, e.grade, SIZE(e.questions), e.isActive, e.createdAt) FROM Exam e")
+    List<ExamSummary> findAllSummaries();
+
+    @Query("SELECT e.examId FROM Exam e")
+    List<String> findAllExamIds();
+
+    long countByQuestionPaperPath(String questionPaperPath);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Exam e SET e.questionPaperPath = :newPath WHERE e.questionPaperPath = :oldPath")
+    int updateQuestionPaperPath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
 }
@@ -1,10 +1,21 @@
 package com.examino.ai.repository;
 
+import com.examino.ai.dto.ExamResultSummary;
+import com.examino.ai.dto.ExamScoreStats;
+import com.examino.ai.dto.GradeCount;
+import com.examino.ai.dto.ScoreHistogram;
+import com.examino.ai.dto.StudentScoreStats;
 import com.examino.ai.model.ExamResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +25,91 @@ public interface ExamResultRepository extends JpaRepository<ExamResult, String>
     
     @Modifying
     void deleteByExamId(String examId);
+
+    @Query("SELECT r.answerPaperPath FROM ExamResult r WHERE r.examId = :examId AND r.answerPaperPath IS NOT NULL")
+    List<String> findAnswerPaperPathsByExamId(@Param("examId") String examId);
+
+    long countByAnswerPaperPath(String answerPaperPath);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ExamResult r SET r.answerPaperPath = :newPath WHERE r.answerPaperPath = :oldPath")
+    int updateAnswerPaperPath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    // Class performance aggregates, computed in SQL over the teacher's exams only
+    @Query("SELECT new com.examino.ai.dto.ExamScoreStats(e.examId, e.title, COUNT(r), AVG(r.score), " +
+           "SUM(CASE WHEN r.score >= 50 THEN 1 ELSE 0 END)) " +
+           "FROM Exam e LEFT JOIN ExamResult r ON r.examId = e.examId " +
+           "WHERE e.teacherId = :teacherId GROUP BY e.examId, e.title")
+    List<ExamScoreStats> findExamScoreStatsByTeacherId(@Param("teacherId") String teacherId);
+
+    @Query("SELECT COUNT(DISTINCT r.studentId) FROM ExamResult r JOIN Exam e ON r.examId = e.examId " +
+           "WHERE e.teacherId = :teacherId")
+    long countDistinctStudentsByTeacherId(@Param("teacherId") String teacherId);
+
+    @Query("SELECT new com.examino.ai.dto.GradeCount(r.grade, COUNT(r)) " +
+           "FROM ExamResult r JOIN Exam e ON r.examId = e.examId " +
+           "WHERE e.teacherId = :teacherId GROUP BY r.grade")
+    List<GradeCount> countGradesByTeacherId(@Param("teacherId") String teacherId);
+
+    // Per-exam aggregates used to rebuild ExamAnalytics from the raw results
+    @Query("SELECT new com.examino.ai.dto.ScoreHistogram(COUNT(r), SUM(r.score), MIN(r.score), MAX(r.score), " +
+           "SUM(CASE WHEN r.score >= 50 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.score >= 90 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.score >= 80 AND r.score < 90 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.score >= 70 AND r.score < 80 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.score >= 60 AND r.score < 70 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.score >= 50 AND r.score < 60 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.score < 50 THEN 1 ELSE 0 END)) " +
+           "FROM ExamResult r WHERE r.examId = :examId")
+    ScoreHistogram findScoreHistogramByExamId(@Param("examId") String examId);
+
+    @Query("SELECT new com.examino.ai.dto.GradeCount(r.grade, COUNT(r)) " +
+           "FROM ExamResult r WHERE r.examId = :examId GROUP BY r.grade")
+    List<GradeCount> countGradesByExamId(@Param("examId") String examId);
+
+    @Query("SELECT MIN(r.score) FROM ExamResult r WHERE r.examId = :examId")
+    Integer findMinScoreByExamId(@Param("examId") String examId);
+
+    @Query("SELECT MAX(r.score) FROM ExamResult r WHERE r.examId = :examId")
+    Integer findMaxScoreByExamId(@Param("examId") String examId);
+
+    // Per-student aggregates used to rebuild StudentDashboard snapshots
+    @Query("SELECT new com.examino.ai.dto.StudentScoreStats(COUNT(r), SUM(r.score), MIN(r.score), MAX(r.score), " +
+           "SUM(r.correctAnswers), SUM(r.wrongAnswers)) " +
+           "FROM ExamResult r WHERE r.studentId = :studentId")
+    StudentScoreStats findScoreStatsByStudentId(@Param("studentId") String studentId);
+
+    @Query("SELECT new com.examino.ai.dto.GradeCount(r.grade, COUNT(r)) " +
+           "FROM ExamResult r WHERE r.studentId = :studentId GROUP BY r.grade")
+    List<GradeCount> countGradesByStudentId(@Param("studentId") String studentId);
+
+    List<ExamResult> findTop5ByStudentIdOrderByCreatedAtDesc(String studentId);
+
+    @Query("SELECT DISTINCT r.studentId FROM ExamResult r WHERE r.examId = :examId")
+    List<String> findDistinctStudentIdsByExamId(@Param("examId") String examId);
+
+    // Keyset pages ordered newest first on (createdAt, resultId); heavy columns are left out
+    @Query("SELECT new com.examino.ai.dto.ExamResultSummary(r.resultId, r.studentId, r.examId, r.score, r.grade, " +
+           "r.feedback, r.totalQuestions, r.correctAnswers, r.wrongAnswers, r.unanswered, r.createdAt) " +
+           "FROM ExamResult r WHERE r.examId = :examId " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.resultId < :resultId)) " +
+           "ORDER BY r.createdAt DESC, r.resultId DESC")
+    List<ExamResultSummary> findSummariesByExamIdBefore(@Param("examId") String examId,
+                                                        @Param("createdAt") Instant createdAt,
+                                                        @Param("resultId") String resultId,
+                                                        Pageable pageable);
+
+    @Query("SELECT new com.examino.ai.dto.ExamResultSummary(r.resultId, r.studentId, r.examId, r.score, r.grade, " +
+           "r.feedback, r.totalQuestions, r.correctAnswers, r.wrongAnswers, r.unanswered, r.createdAt) " +
+           "FROM ExamResult r WHERE r.studentId = :studentId " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.resultId < :resultId)) " +
+           "ORDER BY r.createdAt DESC, r.resultId DESC")
+    List<ExamResultSummary> findSummariesByStudentIdBefore(@Param("studentId") String studentId,
+                                                           @Param("createdAt") Instant createdAt,
+                                                           @Param("resultId") String resultId,
+                                                           Pageable pageable);
+
+    @Query("SELECT r.resultId, r.extractedText FROM ExamResult r WHERE r.resultId IN :resultIds")
+    List<Object[]> findExtractedTextByResultIds(@Param("resultIds") Collection<String> resultIds);
 }
@@ -0,0 +1,48 @@
+package com.examino.ai.repository;
+
+import com.examino.ai.model.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.hash = :hash")
+    Optional<StoredBlob> findByIdForUpdate(@Param("hash") String hash);
+
+    // Single-statement upsert so concurrent uploads of the same content never race on the insert
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs (hash, size, ref_count, created_at, released_at) " +
+                   "VALUES (:hash, :size, :delta, :now, CASE WHEN :delta = 0 THEN :now ELSE NULL END) " +
+                   "ON DUPLICATE KEY UPDATE ref_count = ref_count + :delta, " +
+                   "released_at = IF(ref_count = 0, released_at, NULL)",
+           nativeQuery = true)
+    int addReferences(@Param("hash") String hash, @Param("size") long size,
+                      @Param("delta") long delta, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE stored_blobs SET ref_count = ref_count - :count, " +
+                   "released_at = IF(ref_count = 0, :now, NULL) " +
+                   "WHERE hash = :hash AND ref_count >= :count",
+           nativeQuery = true)
+    int releaseReferences(@Param("hash") String hash, @Param("count") long count, @Param("now") Instant now);
+
+    @Query("SELECT b.hash FROM StoredBlob b WHERE b.refCount = 0 AND b.releasedAt < :cutoff")
+    List<String> findReleasedBefore(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.size), 0), COALESCE(SUM(b.refCount), 0) FROM StoredBlob b")
+    List<Object[]> getTotals();
+}
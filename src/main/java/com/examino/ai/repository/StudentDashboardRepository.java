@@ -0,0 +1,26 @@
+package com.examino.ai.repository;
+
+import com.examino.ai.model.StudentDashboard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StudentDashboardRepository extends JpaRepository<StudentDashboard, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM StudentDashboard d WHERE d.studentId = :studentId")
+    Optional<StudentDashboard> findByIdForUpdate(@Param("studentId") String studentId);
+
+    // Creates an empty row if none exists; a duplicate takes the row's exclusive lock, as in ExamAnalyticsRepository
+    @Modifying
+    @Query(value = "INSERT INTO student_dashboards (student_id, total_exams, score_sum, total_correct, total_wrong) " +
+                   "VALUES (:studentId, 0, 0, 0, 0) ON DUPLICATE KEY UPDATE student_id = student_id",
+           nativeQuery = true)
+    void insertIfAbsent(@Param("studentId") String studentId);
+}
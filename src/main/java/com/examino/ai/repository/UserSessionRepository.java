@@ -2,12 +2,31 @@ package com.examino.ai.repository;
 
 import com.examino.ai.model.UserSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 
 @Repository
 public interface UserSessionRepository extends JpaRepository<UserSession, String> {
     Optional<UserSession> findBySessionIdAndIsActiveTrue(String sessionId);
     void deleteByUserId(String userId);
+
+    // One bounded chunk per call (and per transaction) so row locks stay short.
+    // Each predicate is a separate statement so each can use its own index.
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_sessions WHERE expires_at < :now LIMIT :chunkSize",
+           nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now, @Param("chunkSize") int chunkSize);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_sessions WHERE is_active = false LIMIT :chunkSize",
+           nativeQuery = true)
+    int deleteInactive(@Param("chunkSize") int chunkSize);
 }
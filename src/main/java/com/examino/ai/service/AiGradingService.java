@@ -7,12 +7,6 @@ import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
-import software.amazon.awssdk.core.SdkBytes;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
-
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -20,7 +14,38 @@ import java.util.concurrent.TimeUnit;
 public class AiGradingService {
 
     private final BedrockRuntimeClient bedrockClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelRoutingService modelRoutingService;
+    private final BedrockMessagesCodec bedrockMessagesCodec;
+    private final VectorAnswerScorer vectorAnswerScorer;
+
+    static final PromptTemplate GRADING_PROMPT = PromptTemplate.compile("""
+            You are an expert exam grader. Grade the following student answer:
+            
+            QUESTION: ${question}
+            EXPECTED ANSWER: ${expectedAnswer}
+            STUDENT ANSWER: ${studentAnswer}
+            TOTAL MARKS: ${totalMarks}
+            
+            Evaluate the student's answer and provide:
+            1. Marks earned (0 to ${totalMarks})
+            2. Percentage accuracy (0-100)
+            3. Brief feedback explaining the grading
+            4. Whether the answer is correct (true/false)
+            
+            Consider:
+            - Semantic similarity (synonyms, paraphrasing)
+            - Partial credit for partially correct answers
+            - Key concepts covered
+            - Mathematical accuracy if applicable
+            
+            Respond in JSON format:
+            {
+                "marksEarned": number,
+                "accuracy": number,
+                "feedback": "string",
+                "isCorrect": boolean
+            }
+            """);
     
     @Value("${ai.grading.enabled:true}")
     private boolean aiGradingEnabled;
@@ -32,6 +57,15 @@ public class AiGradingService {
     private long timeoutMs;
 
     public GradingResult gradeAnswer(String question, String expectedAnswer, String studentAnswer, int totalMarks) {
+        return gradeAnswer(question, expectedAnswer, studentAnswer, totalMarks, null, false);
+    }
+
+    /**
+     * questionType and escalatedByLocalGrader feed model routing: a local
+     * grader that gave up on the answer always goes to the strong model.
+     */
+    public GradingResult gradeAnswer(String question, String expectedAnswer, String studentAnswer, int totalMarks,
+                                     String questionType, boolean escalatedByLocalGrader) {
         // Input validation
         if (question == null || question.trim().isEmpty()) {
             log.warn("Question is null or empty");
@@ -57,9 +91,14 @@ public class AiGradingService {
             try {
                 log.debug("Attempting AI grading for question: {}", question.substring(0, Math.min(50, question.length())));
                 String prompt = buildGradingPrompt(question, expectedAnswer, studentAnswer, totalMarks);
-                String aiResponse = invokeBedrockModelWithTimeout(prompt);
-                GradingResult result = parseGradingResponse(aiResponse, totalMarks);
-                log.info("AI grading successful: {}% accuracy, {} marks", result.getAccuracy(), result.getMarksEarned());
+                double confidence = escalatedByLocalGrader ? 0.0 : similarityConfidence(expectedAnswer, studentAnswer);
+                ModelRoutingService.Route route = modelRoutingService.route(new ModelRoutingService.GradingItem(
+                        questionType, studentAnswer.length(), totalMarks, confidence, escalatedByLocalGrader));
+                GradingResult result = gradeWithModel(prompt, route, totalMarks, false);
+                log.info("AI grading successful ({}): {}% accuracy, {} marks", route, result.getAccuracy(), result.getMarksEarned());
+                if (modelRoutingService.shouldShadow(route)) {
+                    modelRoutingService.submitShadow(() -> compareWithStrongModel(prompt, route, result, totalMarks));
+                }
                 return result;
             } catch (Exception e) {
                 log.warn("AI grading failed: {}", e.getMessage());
@@ -75,54 +114,54 @@ public class AiGradingService {
     }
 
     private String buildGradingPrompt(String question, String expectedAnswer, String studentAnswer, int totalMarks) {
-        return String.format("""
-            You are an expert exam grader. Grade the following student answer:
-            
-            QUESTION: %s
-            EXPECTED ANSWER: %s
-            STUDENT ANSWER: %s
-            TOTAL MARKS: %d
-            
-            Evaluate the student's answer and provide:
-            1. Marks earned (0 to %d)
-            2. Percentage accuracy (0-100)
-            3. Brief feedback explaining the grading
-            4. Whether the answer is correct (true/false)
-            
-            Consider:
-            - Semantic similarity (synonyms, paraphrasing)
-            - Partial credit for partially correct answers
-            - Key concepts covered
-            - Mathematical accuracy if applicable
-            
-            Respond in JSON format:
-            {
-                "marksEarned": number,
-                "accuracy": number,
-                "feedback": "string",
-                "isCorrect": boolean
+        return GRADING_PROMPT.render(question, expectedAnswer, studentAnswer, totalMarks);
+    }
+
+    private GradingResult gradeWithModel(String prompt, ModelRoutingService.Route route, int totalMarks,
+                                         boolean shadow) throws Exception {
+        long start = System.currentTimeMillis();
+        boolean succeeded = false;
+        try {
+            GradingResult result = parseGradingResponse(
+                    invokeBedrockModelWithTimeout(prompt, modelRoutingService.modelId(route)), totalMarks);
+            succeeded = true;
+            return result;
+        } finally {
+            long latencyMs = System.currentTimeMillis() - start;
+            if (shadow) {
+                modelRoutingService.recordShadowCall(latencyMs, succeeded);
+            } else {
+                modelRoutingService.recordCall(route, latencyMs, succeeded);
             }
-            """, question, expectedAnswer, studentAnswer, totalMarks, totalMarks);
+        }
+    }
+
+    // Agreement means the same verdict and marks within 10% of the total
+    private void compareWithStrongModel(String prompt, ModelRoutingService.Route route, GradingResult routed, int totalMarks) {
+        try {
+            GradingResult strong = gradeWithModel(prompt, ModelRoutingService.Route.STRONG, totalMarks, true);
+            boolean agreed = strong.isCorrect() == routed.isCorrect()
+                    && Math.abs(strong.getMarksEarned() - routed.getMarksEarned()) <= Math.max(1, totalMarks / 10.0);
+            modelRoutingService.recordShadowComparison(route, agreed);
+        } catch (Exception e) {
+            log.debug("Shadow grading failed: {}", e.getMessage());
+        }
+    }
+
+    // Only close lexical matches count as an easy call: a low overlap may still be a correct paraphrase
+    private double similarityConfidence(String expectedAnswer, String studentAnswer) {
+        int similarity = calculateSimilarity(expectedAnswer.toLowerCase().trim(), studentAnswer.toLowerCase().trim());
+        return Math.max(0, similarity - 50) / 50.0;
     }
 
-    private String invokeBedrockModelWithTimeout(String prompt) throws Exception {
+    private String invokeBedrockModelWithTimeout(String prompt, String modelId) throws Exception {
         long startTime = System.currentTimeMillis();
         
         try {
-            Map<String, Object> requestBody = Map.of(
-                "anthropic_version", "bedrock-2023-05-31",
-                "max_tokens", 1000,
-                "temperature", 0.1, // Low temperature for consistent grading
-                "messages", new Object[]{
-                    Map.of("role", "user", "content", prompt)
-                }
-            );
-
-            String jsonBody = objectMapper.writeValueAsString(requestBody);
-            
+            // Low temperature for consistent grading
             InvokeModelRequest request = InvokeModelRequest.builder()
-                    .modelId("anthropic.claude-3-sonnet-20240229-v1:0")
-                    .body(SdkBytes.fromUtf8String(jsonBody))
+                    .modelId(modelId)
+                    .body(bedrockMessagesCodec.encodeRequest(prompt, 1000, 0.1))
                     .contentType("application/json")
                     .build();
 
@@ -132,13 +171,10 @@ public class AiGradingService {
             }
 
             InvokeModelResponse response = bedrockClient.invokeModel(request);
-            String responseBody = response.body().asUtf8String();
-            
-            JsonNode jsonResponse = objectMapper.readTree(responseBody);
-            String result = jsonResponse.path("content").get(0).path("text").asText();
+            String result = bedrockMessagesCodec.decodeResponseText(response.body());
             
             long duration = System.currentTimeMillis() - startTime;
-            log.debug("AI grading completed in {}ms", duration);
+            log.debug("AI grading with {} completed in {}ms", modelId, duration);
             
             return result;
         } catch (Exception e) {
@@ -154,21 +190,15 @@ public class AiGradingService {
                 throw new RuntimeException("Empty AI response");
             }
             
-            // Extract JSON from AI response
-            int jsonStart = aiResponse.indexOf("{");
-            int jsonEnd = aiResponse.lastIndexOf("}") + 1;
-            
-            if (jsonStart == -1 || jsonEnd <= jsonStart) {
+            BedrockMessagesCodec.ModelGrading result = bedrockMessagesCodec.decodeGrading(aiResponse);
+            if (result == null) {
                 throw new RuntimeException("No valid JSON found in response");
             }
             
-            String jsonStr = aiResponse.substring(jsonStart, jsonEnd);
-            JsonNode result = objectMapper.readTree(jsonStr);
-            
-            int marksEarned = Math.max(0, Math.min(totalMarks, result.path("marksEarned").asInt(0)));
-            int accuracy = Math.max(0, Math.min(100, result.path("accuracy").asInt(0)));
-            String feedback = result.path("feedback").asText("AI grading completed");
-            boolean isCorrect = result.path("isCorrect").asBoolean(false);
+            int marksEarned = Math.max(0, Math.min(totalMarks, result.marksEarned() == null ? 0 : result.marksEarned()));
+            int accuracy = Math.max(0, Math.min(100, result.accuracy() == null ? 0 : result.accuracy()));
+            String feedback = result.feedback() == null ? "AI grading completed" : result.feedback();
+            boolean isCorrect = Boolean.TRUE.equals(result.isCorrect());
             
             // Validate results
             if (feedback.length() > 500) {
@@ -192,8 +222,13 @@ public class AiGradingService {
                 return new GradingResult(totalMarks, 100, "Exact match - Full marks", true);
             }
             
-            // Check for partial matches and common variations
+            // Check for partial matches and common variations; n-gram cosine covers reworded answers
+            // unless the student changed a number or a negation, which the cosine barely notices
             int similarity = calculateSimilarity(expected, student);
+            if (!KeyTerms.contradict(MinHasher.normalize(expectedAnswer), MinHasher.normalize(studentAnswer))) {
+                similarity = Math.max(similarity,
+                        (int) Math.round(vectorAnswerScorer.similarity(null, expectedAnswer, studentAnswer) * 100));
+            }
             
             if (similarity >= 95) {
                 return new GradingResult(totalMarks, similarity, "Excellent match - Full marks", true);
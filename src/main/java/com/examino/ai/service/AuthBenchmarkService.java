@@ -0,0 +1,93 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.User;
+import com.examino.ai.model.UserSession;
+import com.examino.ai.repository.UserSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compares session validation throughput of signed tokens against the
+ * DB-backed path, using a throwaway session row that is removed afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthBenchmarkService {
+
+    private static final int WARMUP_ITERATIONS = 200;
+
+    private final UserSessionRepository sessionRepository;
+    private final SessionTokenService sessionTokenService;
+
+    public Map<String, Object> runSessionValidationBenchmark(int iterations) {
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        User user = User.builder()
+                .userId("benchmark-" + UUID.randomUUID())
+                .username("benchmark")
+                .role("STUDENT")
+                .fullName("Benchmark User")
+                .academicLevel("Benchmark")
+                .grade("0")
+                .build();
+        
+        String token = sessionTokenService.issue(user, expiresAt);
+        UserSession session = sessionRepository.save(UserSession.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .userId(user.getUserId())
+                .username(user.getUsername())
+                .role(user.getRole())
+                .createdAt(Instant.now())
+                .expiresAt(expiresAt)
+                .isActive(true)
+                .build());
+        
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                sessionTokenService.verify(token);
+                sessionRepository.findBySessionIdAndIsActiveTrue(session.getSessionId());
+            }
+            
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                if (sessionTokenService.verify(token) == null) {
+                    throw new IllegalStateException("Token verification failed during benchmark");
+                }
+            }
+            long tokenNanos = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                if (sessionRepository.findBySessionIdAndIsActiveTrue(session.getSessionId()).isEmpty()) {
+                    throw new IllegalStateException("Session lookup failed during benchmark");
+                }
+            }
+            long databaseNanos = System.nanoTime() - start;
+            
+            Map<String, Object> results = new HashMap<>();
+            results.put("iterations", iterations);
+            results.put("tokenOpsPerSecond", opsPerSecond(iterations, tokenNanos));
+            results.put("tokenMicrosPerOp", tokenNanos / 1000.0 / iterations);
+            results.put("databaseOpsPerSecond", opsPerSecond(iterations, databaseNanos));
+            results.put("databaseMicrosPerOp", databaseNanos / 1000.0 / iterations);
+            results.put("speedup", databaseNanos / (double) Math.max(1, tokenNanos));
+            
+            log.info("Session validation benchmark: token {} ops/s, database {} ops/s",
+                    results.get("tokenOpsPerSecond"), results.get("databaseOpsPerSecond"));
+            return results;
+        } finally {
+            sessionRepository.delete(session);
+        }
+    }
+
+    private long opsPerSecond(int iterations, long nanos) {
+        return nanos > 0 ? Math.round(iterations * 1_000_000_000.0 / nanos) : 0;
+    }
+}
@@ -8,8 +8,11 @@ import com.examino.ai.repository.UserRepository;
 import com.examino.ai.repository.UserSessionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -20,17 +23,34 @@ import java.util.UUID;
 @Slf4j
 public class AuthService {
 
+    public static final String SESSION_MODE_TOKEN = "token";
+
     private final UserRepository userRepository;
     private final UserSessionRepository sessionRepository;
+    private final SessionCacheService sessionCacheService;
+    private final SessionTokenService sessionTokenService;
+    private final PasswordHashingService passwordHashingService;
+    private final UserCacheService userCacheService;
 
-    @Transactional
+    // "database" keeps a user_sessions row per login, "token" issues stateless signed tokens
+    @Value("${auth.session.mode:database}")
+    private String sessionMode;
+
+    // Not transactional: no DB connection is held while the password hash runs
     public LoginResponse authenticate(String username, String password, String requestedRole) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
         
-        if (!user.getPassword().equals(password)) {
+        if (!passwordHashingService.verify(password, user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
+        
+        // Transparently upgrade plaintext or weaker hashes on a successful login
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.hash(password));
+            userRepository.save(user);
+            log.info("Upgraded password hash for user: {}", username);
+        }
 
         if (!user.getRole().equals(requestedRole)) {
             if ("TEACHER".equals(requestedRole)) {
@@ -40,25 +60,9 @@ public class AuthService {
             }
         }
 
-        // Create session in database
-        String sessionId = UUID.randomUUID().toString();
-        UserSession session = UserSession.builder()
-                .sessionId(sessionId)
-                .userId(user.getUserId())
-                .username(user.getUsername())
-                .role(user.getRole())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .academicLevel(user.getAcademicLevel())
-                .grade(user.getGrade())
-                .createdAt(Instant.now())
-                .expiresAt(Instant.now().plus(7, ChronoUnit.DAYS))
-                .isActive(true)
-                .build();
-        
-        sessionRepository.save(session);
+        String sessionId = createSession(user);
 
-        log.info("User authenticated: {} with role: {}, sessionId: {}", username, user.getRole(), sessionId);
+        log.info("User authenticated: {} with role: {}, session mode: {}", username, user.getRole(), sessionMode);
 
         return LoginResponse.builder()
                 .success(true)
@@ -74,7 +78,6 @@ public class AuthService {
                 .build();
     }
 
-    @Transactional
     public LoginResponse register(LoginRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new RuntimeException("Username already exists");
@@ -88,7 +91,7 @@ public class AuthService {
         User user = User.builder()
                 .userId(userId)
                 .username(request.getUsername())
-                .password(request.getPassword())
+                .password(passwordHashingService.hash(request.getPassword()))
                 .role(request.getRole())
                 .fullName(request.getFullName())
                 .email(request.getEmail())
@@ -98,23 +101,7 @@ public class AuthService {
 
         userRepository.save(user);
 
-        // Create session
-        String sessionId = UUID.randomUUID().toString();
-        UserSession session = UserSession.builder()
-                .sessionId(sessionId)
-                .userId(userId)
-                .username(user.getUsername())
-                .role(user.getRole())
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .academicLevel(user.getAcademicLevel())
-                .grade(user.getGrade())
-                .createdAt(Instant.now())
-                .expiresAt(Instant.now().plus(7, ChronoUnit.DAYS))
-                .isActive(true)
-                .build();
-        
-        sessionRepository.save(session);
+        String sessionId = createSession(user);
 
         log.info("User registered: {} with role: {}, level: {}, grade: {}", request.getUsername(), request.getRole(), request.getAcademicLevel(), request.getGrade());
 
@@ -133,21 +120,64 @@ public class AuthService {
     }
 
     public UserSession validateSession(String sessionId) {
-        return sessionRepository.findBySessionIdAndIsActiveTrue(sessionId)
+        if (sessionTokenService.isToken(sessionId)) {
+            return sessionTokenService.verify(sessionId);
+        }
+        return sessionCacheService.get(sessionId, id -> sessionRepository.findBySessionIdAndIsActiveTrue(id)
                 .filter(session -> session.getExpiresAt().isAfter(Instant.now()))
-                .orElse(null);
+                .orElse(null));
     }
 
     @Transactional
     public void logout(String sessionId) {
+        if (sessionTokenService.isToken(sessionId)) {
+            sessionTokenService.revoke(sessionId);
+            return;
+        }
+        sessionCacheService.invalidate(sessionId);
         sessionRepository.findById(sessionId).ifPresent(session -> {
             session.setActive(false);
             sessionRepository.save(session);
             log.info("Session logged out: {}", sessionId);
         });
+        // A concurrent request may re-cache the still-active row before this commits
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessionCacheService.invalidate(sessionId);
+                }
+            });
+        }
     }
 
     public User getUserById(String userId) {
-        return userRepository.findById(userId).orElse(null);
+        return userCacheService.get(userId, id -> userRepository.findById(id).orElse(null));
+    }
+
+    private String createSession(User user) {
+        Instant expiresAt = Instant.now().plus(7, ChronoUnit.DAYS);
+        if (SESSION_MODE_TOKEN.equals(sessionMode)) {
+            return sessionTokenService.issue(user, expiresAt);
+        }
+        
+        String sessionId = UUID.randomUUID().toString();
+        UserSession session = UserSession.builder()
+                .sessionId(sessionId)
+                .userId(user.getUserId())
+                .username(user.getUsername())
+                .role(user.getRole())
+                .fullName(user.getFullName())
+                .email(user.getEmail())
+                .academicLevel(user.getAcademicLevel())
+                .grade(user.getGrade())
+                .createdAt(Instant.now())
+                .expiresAt(expiresAt)
+                .isActive(true)
+                .build();
+        
+        sessionRepository.save(session);
+        sessionCacheService.put(session);
+        return sessionId;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,255 @@
+package com.examino.ai.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streaming codec for the Bedrock Claude messages format. Requests are
+ * written with a JsonGenerator into a per-thread buffer and responses are
+ * read token by token, pulling only the fields grading needs instead of
+ * building maps and trees.
+ */
+@Component
+@Slf4j
+public class BedrockMessagesCodec {
+
+    public static final String ANTHROPIC_VERSION = "bedrock-2023-05-31";
+
+    private static final int REQUEST_BUFFER_LIMIT = 256 * 1024;
+
+    /**
+     * The grading fields a model reply may carry; absent fields are null.
+     * Per-question grading uses marksEarned/accuracy/isCorrect, whole-sheet
+     * grading uses score.
+     */
+    public record ModelGrading(Integer marksEarned, Integer accuracy, Integer score, String feedback, Boolean isCorrect) {
+    }
+
+    /**
+     * Leading prompt text that is shared by many requests, JSON-escaped once
+     * so each request only escapes its own tail.
+     */
+    public record PromptPrefix(String text, byte[] escapedUtf8) {
+    }
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ThreadLocal<ByteArrayBuilder> requestBuffer = ThreadLocal.withInitial(() -> new ByteArrayBuilder(8192));
+    private final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+
+    private final LongAdder requestsEncoded = new LongAdder();
+    private final LongAdder responsesDecoded = new LongAdder();
+    private final LongAdder encodeAllocatedBytes = new LongAdder();
+    private final LongAdder decodeAllocatedBytes = new LongAdder();
+    private final LongAdder repliesDecoded = new LongAdder();
+    private final LongAdder replyAllocatedBytes = new LongAdder();
+
+    public PromptPrefix preparePrefix(String text) {
+        return new PromptPrefix(text, JsonStringEncoder.getInstance().quoteAsUTF8(text));
+    }
+
+    public SdkBytes encodeRequest(String prompt, int maxTokens, Double temperature) {
+        return encodeRequest(null, prompt, maxTokens, temperature, false);
+    }
+
+    /**
+     * Writes prefix + tail as the user message. With cachePrefix the two go
+     * out as separate text blocks and the prefix carries a cache_control
+     * breakpoint, so models with prompt caching reuse it across requests.
+     */
+    public SdkBytes encodeRequest(PromptPrefix prefix, String tail, int maxTokens, Double temperature, boolean cachePrefix) {
+        long allocatedBefore = allocatedBytes();
+        ByteArrayBuilder buffer = requestBuffer.get();
+        buffer.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(buffer, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("anthropic_version", ANTHROPIC_VERSION);
+            generator.writeNumberField("max_tokens", maxTokens);
+            if (temperature != null) {
+                generator.writeNumberField("temperature", temperature);
+            }
+            generator.writeArrayFieldStart("messages");
+            generator.writeStartObject();
+            generator.writeStringField("role", "user");
+            if (prefix == null) {
+                generator.writeStringField("content", tail);
+            } else if (cachePrefix) {
+                generator.writeArrayFieldStart("content");
+                generator.writeStartObject();
+                generator.writeStringField("type", "text");
+                generator.writeFieldName("text");
+                generator.writeRawUTF8String(prefix.escapedUtf8(), 0, prefix.escapedUtf8().length);
+                generator.writeObjectFieldStart("cache_control");
+                generator.writeStringField("type", "ephemeral");
+                generator.writeEndObject();
+                generator.writeEndObject();
+                generator.writeStartObject();
+                generator.writeStringField("type", "text");
+                generator.writeStringField("text", tail);
+                generator.writeEndObject();
+                generator.writeEndArray();
+            } else {
+                byte[] escapedTail = JsonStringEncoder.getInstance().quoteAsUTF8(tail);
+                byte[] content = new byte[prefix.escapedUtf8().length + escapedTail.length];
+                System.arraycopy(prefix.escapedUtf8(), 0, content, 0, prefix.escapedUtf8().length);
+                System.arraycopy(escapedTail, 0, content, prefix.escapedUtf8().length, escapedTail.length);
+                generator.writeFieldName("content");
+                generator.writeRawUTF8String(content, 0, content.length);
+            }
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode model request: " + e.getMessage(), e);
+        }
+        SdkBytes body = SdkBytes.fromByteArrayUnsafe(buffer.toByteArray());
+        if (buffer.size() > REQUEST_BUFFER_LIMIT) {
+            requestBuffer.remove();
+        }
+        recordAllocation(requestsEncoded, encodeAllocatedBytes, allocatedBefore);
+        return body;
+    }
+
+    /**
+     * Extracts the first text block of a messages response, i.e.
+     * content[0].text, skipping everything else.
+     */
+    public String decodeResponseText(SdkBytes responseBody) {
+        long allocatedBefore = allocatedBytes();
+        try (JsonParser parser = jsonFactory.createParser(responseBody.asByteArrayUnsafe())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("Model response is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("content".equals(field) && value == JsonToken.START_ARRAY) {
+                    String text = firstTextBlock(parser);
+                    if (text != null) {
+                        recordAllocation(responsesDecoded, decodeAllocatedBytes, allocatedBefore);
+                        return text;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            throw new RuntimeException("Model response has no text content");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode model response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the JSON object embedded in the model's reply text, starting at
+     * the first '{' and stopping at its matching '}', so surrounding prose is
+     * never sliced out or copied. Returns null when the reply contains no object.
+     */
+    public ModelGrading decodeGrading(String replyText) {
+        int start = replyText == null ? -1 : replyText.indexOf('{');
+        if (start < 0) {
+            return null;
+        }
+        long allocatedBefore = allocatedBytes();
+        Integer marksEarned = null;
+        Integer accuracy = null;
+        Integer score = null;
+        String feedback = null;
+        Boolean isCorrect = null;
+        try (StringReader reader = new StringReader(replyText);
+             JsonParser parser = jsonFactory.createParser(reader)) {
+            reader.skip(start);
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY || value == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (field) {
+                    case "marksEarned" -> marksEarned = parser.getValueAsInt(0);
+                    case "accuracy" -> accuracy = parser.getValueAsInt(0);
+                    case "score" -> score = parser.getValueAsInt(0);
+                    case "feedback" -> feedback = parser.getValueAsString();
+                    case "isCorrect" -> isCorrect = parser.getValueAsBoolean(false);
+                    default -> {
+                        // ignore fields grading does not use
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid JSON in model reply: " + e.getMessage(), e);
+        }
+        recordAllocation(repliesDecoded, replyAllocatedBytes, allocatedBefore);
+        return new ModelGrading(marksEarned, accuracy, score, feedback, isCorrect);
+    }
+
+    public Map<String, Object> getStatistics() {
+        long encoded = requestsEncoded.sum();
+        long decoded = responsesDecoded.sum();
+        long replies = repliesDecoded.sum();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("allocationTracking", threadMXBean != null);
+        statistics.put("requestsEncoded", encoded);
+        statistics.put("responsesDecoded", decoded);
+        statistics.put("averageEncodeAllocatedBytes", encoded == 0 ? 0 : encodeAllocatedBytes.sum() / encoded);
+        statistics.put("averageDecodeAllocatedBytes", decoded == 0 ? 0 : decodeAllocatedBytes.sum() / decoded);
+        statistics.put("repliesDecoded", replies);
+        statistics.put("averageReplyAllocatedBytes", replies == 0 ? 0 : replyAllocatedBytes.sum() / replies);
+        return statistics;
+    }
+
+    private static String firstTextBlock(JsonParser parser) throws IOException {
+        String text = null;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (text == null && "text".equals(field) && value == JsonToken.VALUE_STRING) {
+                    text = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return text;
+    }
+
+    private long allocatedBytes() {
+        return threadMXBean == null ? 0 : threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private void recordAllocation(LongAdder calls, LongAdder bytes, long allocatedBefore) {
+        calls.increment();
+        if (threadMXBean != null) {
+            bytes.add(threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        log.info("Per-thread allocation tracking is not available; codec allocation statistics are disabled");
+        return null;
+    }
+}
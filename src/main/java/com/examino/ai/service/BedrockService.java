@@ -1,11 +1,9 @@
 package com.examino.ai.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
@@ -18,55 +16,18 @@ import java.util.Map;
 public class BedrockService {
 
     private final BedrockRuntimeClient bedrockRuntimeClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ModelRoutingService modelRoutingService;
+    private final BedrockMessagesCodec bedrockMessagesCodec;
 
-    private static final String CLAUDE_MODEL_ID = "anthropic.claude-3-haiku-20240307-v1:0";
+    private static final String EXAM_SHEET_TYPE = "EXAM_SHEET";
+    private static final int EXAM_SHEET_MARKS = 100;
 
-    public Map<String, Object> gradeExam(String extractedText, String rubricJson) {
-        try {
-            String prompt = buildGradingPrompt(extractedText, rubricJson);
-            
-            Map<String, Object> requestBody = Map.of(
-                "anthropic_version", "bedrock-2023-05-31",
-                "max_tokens", 1000,
-                "messages", new Object[]{
-                    Map.of(
-                        "role", "user",
-                        "content", prompt
-                    )
-                }
-            );
-
-            String requestBodyJson = objectMapper.writeValueAsString(requestBody);
-
-            InvokeModelRequest request = InvokeModelRequest.builder()
-                    .modelId(CLAUDE_MODEL_ID)
-                    .body(SdkBytes.fromUtf8String(requestBodyJson))
-                    .build();
-
-            InvokeModelResponse response = bedrockRuntimeClient.invokeModel(request);
-            String responseBody = response.body().asUtf8String();
-            
-            JsonNode responseJson = objectMapper.readTree(responseBody);
-            String aiResponse = responseJson.get("content").get(0).get("text").asText();
-            
-            return parseGradingResponse(aiResponse);
-            
-        } catch (Exception e) {
-            log.error("Error grading exam with Bedrock: {}", e.getMessage());
-            throw new RuntimeException("Failed to grade exam", e);
-        }
-    }
-
-    private String buildGradingPrompt(String extractedText, String rubricJson) {
-        return String.format("""
-            You are a strict academic grader. Grade the following student answer based on the provided rubric.
+    // Everything up to the student's answer depends only on the rubric, so it is built once per rubric
+    private static final PromptTemplate RUBRIC_PREFIX = PromptTemplate.compile("""
+            You are a strict academic grader. Grade the student answer at the end of this message based on the provided rubric.
             
             RUBRIC (JSON format):
-            %s
-            
-            STUDENT ANSWER (extracted from handwriting OCR):
-            %s
+            ${rubric}
             
             Instructions:
             1. Ignore minor OCR typos (e.g., 'teh' instead of 'the')
@@ -79,22 +40,55 @@ public class BedrockService {
                 "score": <number 0-100>,
                 "feedback": "<detailed feedback explaining the grade>"
             }
-            """, rubricJson, extractedText);
+            
+            STUDENT ANSWER (extracted from handwriting OCR):
+            """);
+
+    @Value("${ai.bedrock.prompt-caching:false}")
+    private boolean promptCaching;
+
+    public BedrockMessagesCodec.PromptPrefix buildRubricPrefix(String normalizedRubricJson) {
+        return bedrockMessagesCodec.preparePrefix(RUBRIC_PREFIX.render(normalizedRubricJson));
     }
 
-    private Map<String, Object> parseGradingResponse(String aiResponse) {
+    public Map<String, Object> gradeExam(String extractedText, RubricCacheService.CompiledRubric rubric) {
         try {
-            // Extract JSON from AI response
-            int jsonStart = aiResponse.indexOf("{");
-            int jsonEnd = aiResponse.lastIndexOf("}") + 1;
+            String answer = extractedText == null ? "" : extractedText;
+
+            // Whole OCR sheets carry no local grading signal, so confidence stays neutral
+            ModelRoutingService.Route route = modelRoutingService.route(new ModelRoutingService.GradingItem(
+                    EXAM_SHEET_TYPE, answer.length(), EXAM_SHEET_MARKS, 0.5, false));
+            InvokeModelRequest request = InvokeModelRequest.builder()
+                    .modelId(modelRoutingService.modelId(route))
+                    .body(bedrockMessagesCodec.encodeRequest(rubric.promptPrefix(), answer, 1000, null, promptCaching))
+                    .build();
+
+            long start = System.currentTimeMillis();
+            InvokeModelResponse response;
+            try {
+                response = bedrockRuntimeClient.invokeModel(request);
+                modelRoutingService.recordCall(route, System.currentTimeMillis() - start, true);
+            } catch (RuntimeException e) {
+                modelRoutingService.recordCall(route, System.currentTimeMillis() - start, false);
+                throw e;
+            }
+            String aiResponse = bedrockMessagesCodec.decodeResponseText(response.body());
             
-            if (jsonStart >= 0 && jsonEnd > jsonStart) {
-                String jsonResponse = aiResponse.substring(jsonStart, jsonEnd);
-                JsonNode responseJson = objectMapper.readTree(jsonResponse);
-                
+            return parseGradingResponse(aiResponse);
+            
+        } catch (Exception e) {
+            log.error("Error grading exam with Bedrock: {}", e.getMessage());
+            throw new RuntimeException("Failed to grade exam", e);
+        }
+    }
+
+    private Map<String, Object> parseGradingResponse(String aiResponse) {
+        try {
+            BedrockMessagesCodec.ModelGrading grading = bedrockMessagesCodec.decodeGrading(aiResponse);
+            if (grading != null && grading.score() != null && grading.feedback() != null) {
                 return Map.of(
-                    "score", responseJson.get("score").asInt(),
-                    "feedback", responseJson.get("feedback").asText()
+                    "score", grading.score(),
+                    "feedback", grading.feedback()
                 );
             }
             
@@ -0,0 +1,37 @@
+package com.examino.ai.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Backend holding content-addressed blobs for FileStorageService. Blobs are
+ * immutable and keyed by the SHA-256 of their content.
+ */
+public interface BlobStore {
+
+    String getName();
+
+    boolean exists(String hash) throws IOException;
+
+    /**
+     * Stores a completed temp file under the given hash. The source may be
+     * moved away; the caller removes it afterwards if it is still there.
+     */
+    void write(String hash, Path source) throws IOException;
+
+    /**
+     * Copies the blob into target, which must not exist yet.
+     */
+    void copyTo(String hash, Path target) throws IOException;
+
+    /**
+     * Returns a local file holding the blob, fetching it first if the backend
+     * is remote, or null when the blob does not exist.
+     */
+    Path getLocalPath(String hash) throws IOException;
+
+    void delete(String hash) throws IOException;
+
+    Map<String, Object> getStatistics();
+}
@@ -0,0 +1,84 @@
+package com.examino.ai.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Multiple choice. The expected answer may be a choice key ("B"), several
+ * keys ("A, C"), the option text ("Paris") or both ("B) Paris"). A verdict
+ * is given only when both sides carry keys, or when the normalized option
+ * texts are identical; anything else (e.g. an option written out against a
+ * key-only scheme) is escalated.
+ */
+@Component
+public class ChoiceQuestionGrader implements QuestionGrader {
+
+    // "B) Paris", "(b) Paris", "b. Paris", "B: Paris"
+    private static final Pattern KEYED_OPTION = Pattern.compile("^\\(?([a-h])[).:]\\s+(.+)$");
+    private static final Pattern KEY_LIST = Pattern.compile("^[a-h](\\s*[,;&]\\s*[a-h]|\\s+and\\s+[a-h])*$");
+
+    @Override
+    public Set<String> getTypes() {
+        return Set.of("MCQ", "MULTIPLE_CHOICE", "CHOICE");
+    }
+
+    @Override
+    public AiGradingService.GradingResult grade(String questionText, String expectedAnswer, String studentAnswer, int totalMarks) {
+        Choice expected = Choice.parse(expectedAnswer);
+        Choice student = Choice.parse(studentAnswer);
+        if (!expected.keys.isEmpty() && !student.keys.isEmpty()) {
+            return expected.keys.equals(student.keys) ? correct(totalMarks) : incorrect();
+        }
+        if (expected.text != null && !expected.text.isEmpty() && expected.text.equals(student.text)) {
+            return correct(totalMarks);
+        }
+        // Text that differs, or a key on one side only, cannot be judged without mapping options
+        return null;
+    }
+
+    private static AiGradingService.GradingResult correct(int totalMarks) {
+        return new AiGradingService.GradingResult(totalMarks, 100, "Correct option selected", true);
+    }
+
+    private static AiGradingService.GradingResult incorrect() {
+        return new AiGradingService.GradingResult(0, 0, "Incorrect option selected", false);
+    }
+
+    private static final class Choice {
+        private final Set<String> keys;
+        private final String text;
+
+        private Choice(Set<String> keys, String text) {
+            this.keys = keys;
+            this.text = text;
+        }
+
+        private static Choice parse(String answer) {
+            String normalized = answer.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+            if (normalized.length() > 1 && normalized.matches("^\\(?[a-h][).]?$")) {
+                normalized = normalized.replaceAll("[().]", "");
+            }
+            if (KEY_LIST.matcher(normalized).matches()) {
+                Set<String> keys = Arrays.stream(normalized.split("\\s*[,;&]\\s*|\\s+and\\s+"))
+                        .collect(Collectors.toCollection(TreeSet::new));
+                return new Choice(keys, null);
+            }
+            Matcher keyed = KEYED_OPTION.matcher(normalized);
+            if (keyed.matches()) {
+                return new Choice(Set.of(keyed.group(1)), normalizeText(keyed.group(2)));
+            }
+            return new Choice(Set.of(), normalizeText(normalized));
+        }
+
+        private static String normalizeText(String text) {
+            return text.replaceAll("[^\\p{L}\\p{N} ]", "").trim();
+        }
+    }
+}
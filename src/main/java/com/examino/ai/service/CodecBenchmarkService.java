@@ -0,0 +1,166 @@
+package com.examino.ai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.SdkBytes;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares per-call allocation and time of the original Bedrock request and
+ * response handling (String.format prompt, Map.of body through ObjectMapper,
+ * readTree of the response and substring of the reply) with the streaming
+ * BedrockMessagesCodec path, on a fixed grading prompt and canned response.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CodecBenchmarkService {
+
+    private static final int WARMUP_ITERATIONS = 2000;
+
+    private static final String QUESTION = "Explain the process of photosynthesis.";
+    private static final String EXPECTED_ANSWER =
+            "Plants use sunlight, water and carbon dioxide to make glucose and release oxygen, using chlorophyll.";
+    private static final String STUDENT_ANSWER =
+            "Photosynthesis is when plants take in light, water and CO2 and produce sugar and oxygen.";
+    private static final int TOTAL_MARKS = 5;
+
+    // The grading prompt as it was built before PromptTemplate
+    private static final String LEGACY_PROMPT = """
+            You are an expert exam grader. Grade the following student answer:
+            
+            QUESTION: %s
+            EXPECTED ANSWER: %s
+            STUDENT ANSWER: %s
+            TOTAL MARKS: %d
+            
+            Evaluate the student's answer and provide:
+            1. Marks earned (0 to %d)
+            2. Percentage accuracy (0-100)
+            3. Brief feedback explaining the grading
+            4. Whether the answer is correct (true/false)
+            
+            Consider:
+            - Semantic similarity (synonyms, paraphrasing)
+            - Partial credit for partially correct answers
+            - Key concepts covered
+            - Mathematical accuracy if applicable
+            
+            Respond in JSON format:
+            {
+                "marksEarned": number,
+                "accuracy": number,
+                "feedback": "string",
+                "isCorrect": boolean
+            }
+            """;
+
+    private final BedrockMessagesCodec bedrockMessagesCodec;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long sink;
+
+    public Map<String, Object> runCodecBenchmark(int iterations) throws Exception {
+        SdkBytes response = cannedResponse();
+        String legacyPrompt = String.format(LEGACY_PROMPT, QUESTION, EXPECTED_ANSWER, STUDENT_ANSWER, TOTAL_MARKS, TOTAL_MARKS);
+        String prompt = AiGradingService.GRADING_PROMPT.render(QUESTION, EXPECTED_ANSWER, STUDENT_ANSWER, TOTAL_MARKS);
+        if (!legacyPrompt.equals(prompt)) {
+            throw new IllegalStateException("Legacy and templated prompts differ");
+        }
+        
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            legacyCall(response);
+            codecCall(response);
+        }
+        
+        com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+        long allocatedBefore = allocatedBytes(threadMXBean);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            legacyCall(response);
+        }
+        long legacyNanos = System.nanoTime() - start;
+        long legacyBytes = allocatedBytes(threadMXBean) - allocatedBefore;
+        
+        allocatedBefore = allocatedBytes(threadMXBean);
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            codecCall(response);
+        }
+        long codecNanos = System.nanoTime() - start;
+        long codecBytes = allocatedBytes(threadMXBean) - allocatedBefore;
+        
+        Map<String, Object> results = new HashMap<>();
+        results.put("iterations", iterations);
+        results.put("legacyMicrosPerCall", legacyNanos / 1000.0 / iterations);
+        results.put("codecMicrosPerCall", codecNanos / 1000.0 / iterations);
+        if (threadMXBean != null) {
+            results.put("legacyBytesPerCall", legacyBytes / iterations);
+            results.put("codecBytesPerCall", codecBytes / iterations);
+            results.put("allocationReduction", legacyBytes / (double) Math.max(1, codecBytes));
+        } else {
+            results.put("allocationTracking", "unavailable");
+        }
+        
+        log.info("Codec benchmark: legacy {} B/call, codec {} B/call",
+                results.get("legacyBytesPerCall"), results.get("codecBytesPerCall"));
+        return results;
+    }
+
+    private void legacyCall(SdkBytes response) throws Exception {
+        String prompt = String.format(LEGACY_PROMPT, QUESTION, EXPECTED_ANSWER, STUDENT_ANSWER, TOTAL_MARKS, TOTAL_MARKS);
+        Map<String, Object> requestBody = Map.of(
+                "anthropic_version", BedrockMessagesCodec.ANTHROPIC_VERSION,
+                "max_tokens", 1000,
+                "temperature", 0.1,
+                "messages", new Object[]{Map.of("role", "user", "content", prompt)});
+        SdkBytes body = SdkBytes.fromUtf8String(objectMapper.writeValueAsString(requestBody));
+        
+        String text = objectMapper.readTree(response.asUtf8String()).path("content").get(0).path("text").asText();
+        JsonNode grading = objectMapper.readTree(text.substring(text.indexOf('{'), text.lastIndexOf('}') + 1));
+        sink += body.asByteArrayUnsafe().length + grading.path("marksEarned").asInt(0)
+                + grading.path("feedback").asText("").length();
+    }
+
+    private void codecCall(SdkBytes response) {
+        String prompt = AiGradingService.GRADING_PROMPT.render(QUESTION, EXPECTED_ANSWER, STUDENT_ANSWER, TOTAL_MARKS);
+        SdkBytes body = bedrockMessagesCodec.encodeRequest(prompt, 1000, 0.1);
+        
+        BedrockMessagesCodec.ModelGrading grading =
+                bedrockMessagesCodec.decodeGrading(bedrockMessagesCodec.decodeResponseText(response));
+        sink += body.asByteArrayUnsafe().length + grading.marksEarned() + grading.feedback().length();
+    }
+
+    private SdkBytes cannedResponse() throws Exception {
+        String reply = "Here is my grading:\n{\"marksEarned\": 4, \"accuracy\": 80, \"feedback\": "
+                + "\"Covers the inputs and outputs of photosynthesis but omits the role of chlorophyll.\", "
+                + "\"isCorrect\": true}";
+        Map<String, Object> response = Map.of(
+                "id", "msg_benchmark",
+                "type", "message",
+                "role", "assistant",
+                "content", new Object[]{Map.of("type", "text", "text", reply)},
+                "stop_reason", "end_turn",
+                "usage", Map.of("input_tokens", 310, "output_tokens", 60));
+        return SdkBytes.fromByteArray(objectMapper.writeValueAsString(response).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threadMXBean) {
+        return threadMXBean == null ? 0 : threadMXBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+}
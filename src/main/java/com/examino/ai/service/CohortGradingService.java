@@ -0,0 +1,223 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.Question;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Grades all answers to one question together. Answers are reduced to
+ * distinct normalized variants and each variant is offered to the local
+ * grader once. The variants left for the AI grader are clustered with
+ * MinHash/LSH around the most common ones, and only one representative per
+ * cluster is sent; its grade is copied to the rest of the cluster. Clusters
+ * are near-verbatim (Jaccard >= 0.95 by default), and a member whose numbers,
+ * negations or set of content words differ from its representative's is
+ * treated as an outlier and graded on its own.
+ */
+@Service
+@Slf4j
+public class CohortGradingService {
+
+    private final QuestionGradingService questionGradingService;
+    private final MinHasher minHasher;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int bands;
+    private final int maxCandidates;
+
+    private final LongAdder cohorts = new LongAdder();
+    private final LongAdder answers = new LongAdder();
+    private final LongAdder variants = new LongAdder();
+    private final LongAdder gradedLocally = new LongAdder();
+    private final LongAdder representativesGraded = new LongAdder();
+    private final LongAdder propagated = new LongAdder();
+    private final LongAdder outliersEscalated = new LongAdder();
+    private final LongAdder clusteringNanos = new LongAdder();
+
+    private static final class Variant {
+        private final String normalized;
+        private final String original;
+        private final List<Integer> indexes = new ArrayList<>();
+        private MinHasher.Sketch sketch;
+        private Variant representative;
+
+        private Variant(String normalized, String original) {
+            this.normalized = normalized;
+            this.original = original;
+        }
+    }
+
+    public CohortGradingService(QuestionGradingService questionGradingService,
+                                @Value("${grading.cohort.enabled:true}") boolean enabled,
+                                @Value("${grading.cohort.similarity-threshold:0.95}") double similarityThreshold,
+                                @Value("${grading.cohort.num-hashes:64}") int numHashes,
+                                @Value("${grading.cohort.bands:16}") int bands,
+                                @Value("${grading.cohort.shingle-size:4}") int shingleSize,
+                                @Value("${grading.cohort.max-candidates:32}") int maxCandidates) {
+        this.questionGradingService = questionGradingService;
+        this.minHasher = new MinHasher(numHashes, shingleSize, 0x5EEDL);
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.bands = bands;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Returns one result per answer, in order. An entry is null when grading
+     * that answer failed, so the caller can apply its own error handling.
+     */
+    public List<AiGradingService.GradingResult> gradeCohort(Question question, List<String> studentAnswers) {
+        AiGradingService.GradingResult[] results = new AiGradingService.GradingResult[studentAnswers.size()];
+        if (!enabled || studentAnswers.size() < 2) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = gradeSafely(questionGradingService::grade, question, studentAnswers.get(i));
+            }
+            return Arrays.asList(results);
+        }
+        
+        List<Variant> allVariants = distinctVariants(studentAnswers);
+        List<Variant> forAi = new ArrayList<>();
+        for (Variant variant : allVariants) {
+            AiGradingService.GradingResult localResult = gradeSafely(questionGradingService::gradeLocally, question, variant.original);
+            if (localResult != null) {
+                gradedLocally.increment();
+                fill(results, variant, localResult);
+            } else {
+                forAi.add(variant);
+            }
+        }
+        
+        long start = System.nanoTime();
+        cluster(forAi);
+        clusteringNanos.add(System.nanoTime() - start);
+        
+        Map<Variant, List<Variant>> clusters = new IdentityHashMap<>();
+        for (Variant variant : forAi) {
+            clusters.computeIfAbsent(variant.representative == null ? variant : variant.representative,
+                    key -> new ArrayList<>()).add(variant);
+        }
+        for (Map.Entry<Variant, List<Variant>> cluster : clusters.entrySet()) {
+            Variant representative = cluster.getKey();
+            AiGradingService.GradingResult representativeResult = gradeSafely(questionGradingService::gradeWithAi, question, representative.original);
+            representativesGraded.increment();
+            for (Variant variant : cluster.getValue()) {
+                AiGradingService.GradingResult result = representativeResult;
+                if (variant == representative) {
+                    propagated.add(variant.indexes.size() - 1);
+                } else if (KeyTerms.differ(representative.normalized, variant.normalized)) {
+                    result = gradeSafely(questionGradingService::gradeWithAi, question, variant.original);
+                    outliersEscalated.increment();
+                    propagated.add(variant.indexes.size() - 1);
+                } else {
+                    propagated.add(variant.indexes.size());
+                }
+                fill(results, variant, result);
+            }
+        }
+        
+        cohorts.increment();
+        answers.add(studentAnswers.size());
+        variants.add(allVariants.size());
+        log.debug("Cohort of {} answers for question {}: {} variants, {} graded locally, {} clusters",
+                studentAnswers.size(), question.getQuestionId(), allVariants.size(),
+                allVariants.size() - forAi.size(), clusters.size());
+        return Arrays.asList(results);
+    }
+
+    public Map<String, Object> getStatistics() {
+        long answerCount = answers.sum();
+        long graded = gradedLocally.sum() + representativesGraded.sum() + outliersEscalated.sum();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("cohorts", cohorts.sum());
+        statistics.put("answers", answerCount);
+        statistics.put("distinctVariants", variants.sum());
+        statistics.put("variantsGradedLocally", gradedLocally.sum());
+        statistics.put("representativesGraded", representativesGraded.sum());
+        statistics.put("outliersEscalated", outliersEscalated.sum());
+        statistics.put("propagated", propagated.sum());
+        statistics.put("gradingCallsSaved", Math.max(0, answerCount - graded));
+        statistics.put("clusteringMicrosPerAnswer", answerCount == 0 ? 0.0 : clusteringNanos.sum() / 1000.0 / answerCount);
+        return statistics;
+    }
+
+    // Most common phrasing first, so it becomes the representative of its cluster
+    private static List<Variant> distinctVariants(List<String> studentAnswers) {
+        Map<String, Variant> byText = new LinkedHashMap<>();
+        for (int i = 0; i < studentAnswers.size(); i++) {
+            String answer = studentAnswers.get(i);
+            String normalized = MinHasher.normalize(answer);
+            byText.computeIfAbsent(normalized, key -> new Variant(key, answer)).indexes.add(i);
+        }
+        List<Variant> ordered = new ArrayList<>(byText.values());
+        ordered.sort(Comparator.comparingInt((Variant variant) -> variant.indexes.size()).reversed());
+        return ordered;
+    }
+
+    /**
+     * Sets each variant's representative (left null for cluster leaders).
+     * Only leaders are indexed, so each lookup scans buckets whose size is
+     * bounded by the number of clusters rather than the number of answers.
+     */
+    private void cluster(List<Variant> ordered) {
+        Map<Long, List<Variant>> buckets = new HashMap<>();
+        for (Variant variant : ordered) {
+            variant.sketch = minHasher.sketch(variant.normalized);
+            long[] keys = minHasher.bandKeys(variant.sketch, bands);
+            
+            Set<Variant> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            Variant best = null;
+            double bestSimilarity = 0;
+            for (long key : keys) {
+                for (Variant candidate : buckets.getOrDefault(key, List.of())) {
+                    if (seen.size() >= maxCandidates || !seen.add(candidate)) {
+                        continue;
+                    }
+                    double similarity = MinHasher.jaccard(variant.sketch, candidate.sketch);
+                    if (similarity > bestSimilarity) {
+                        best = candidate;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+            
+            if (best != null && bestSimilarity >= similarityThreshold) {
+                variant.representative = best;
+            } else {
+                for (long key : keys) {
+                    buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(variant);
+                }
+            }
+        }
+    }
+
+    private static void fill(AiGradingService.GradingResult[] results, Variant variant, AiGradingService.GradingResult result) {
+        for (int index : variant.indexes) {
+            results[index] = result;
+        }
+    }
+
+    private AiGradingService.GradingResult gradeSafely(BiFunction<Question, String, AiGradingService.GradingResult> grader,
+                                                       Question question, String studentAnswer) {
+        try {
+            return grader.apply(question, studentAnswer);
+        } catch (Exception e) {
+            log.error("Failed to grade answer for question {}: {}", question.getQuestionId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.examino.ai.service;
+
+import com.examino.ai.dto.GradeCount;
+import com.examino.ai.dto.ScoreHistogram;
+import com.examino.ai.model.ExamAnalytics;
+import com.examino.ai.model.ExamResult;
+import com.examino.ai.repository.ExamAnalyticsRepository;
+import com.examino.ai.repository.ExamResultRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExamAnalyticsService {
+
+    private final ExamAnalyticsRepository examAnalyticsRepository;
+    private final ExamResultRepository examResultRepository;
+
+    @Transactional
+    public void recordResult(ExamResult result) {
+        // Insert before any locking read: a locking read of a missing row takes a gap lock,
+        // and two first submissions holding it would deadlock on their inserts
+        examAnalyticsRepository.insertIfAbsent(result.getExamId());
+        ExamAnalytics analytics = lockRow(result.getExamId());
+        if (analytics.getSubmissions() == 0) {
+            // New row (or results predating the aggregate table): derive it from the raw
+            // results, which already include this one
+            rebuild(result.getExamId());
+            return;
+        }
+        
+        int score = result.getScore();
+        applyResult(analytics, score, result.getGrade(), 1);
+        if (analytics.getMinScore() == null || score < analytics.getMinScore()) {
+            analytics.setMinScore(score);
+        }
+        if (analytics.getMaxScore() == null || score > analytics.getMaxScore()) {
+            analytics.setMaxScore(score);
+        }
+        
+        examAnalyticsRepository.save(analytics);
+    }
+
+    /**
+     * Must run after the result row itself has been deleted, so that min/max
+     * can be re-read from the remaining results when the extreme is removed.
+     */
+    @Transactional
+    public void removeResult(ExamResult result) {
+        ExamAnalytics analytics = examAnalyticsRepository.findByIdForUpdate(result.getExamId()).orElse(null);
+        if (analytics == null) {
+            return;
+        }
+        
+        applyResult(analytics, result.getScore(), result.getGrade(), -1);
+        if (analytics.getSubmissions() <= 0) {
+            examAnalyticsRepository.delete(analytics);
+            return;
+        }
+        
+        if (result.getScore().equals(analytics.getMinScore())) {
+            analytics.setMinScore(examResultRepository.findMinScoreByExamId(result.getExamId()));
+        }
+        if (result.getScore().equals(analytics.getMaxScore())) {
+            analytics.setMaxScore(examResultRepository.findMaxScoreByExamId(result.getExamId()));
+        }
+        examAnalyticsRepository.save(analytics);
+    }
+
+    @Transactional
+    public void removeExam(String examId) {
+        examAnalyticsRepository.deleteById(examId);
+    }
+
+    @Transactional
+    public void rebuild(String examId) {
+        ScoreHistogram histogram = examResultRepository.findScoreHistogramByExamId(examId);
+        if (histogram == null || histogram.getSubmissions() == 0) {
+            examAnalyticsRepository.deleteById(examId);
+            return;
+        }
+        
+        Map<String, Long> gradeCounts = new HashMap<>();
+        for (GradeCount gradeCount : examResultRepository.countGradesByExamId(examId)) {
+            gradeCounts.put(gradeCount.getGrade(), gradeCount.getCount());
+        }
+        
+        examAnalyticsRepository.insertIfAbsent(examId);
+        ExamAnalytics analytics = lockRow(examId);
+        analytics.setSubmissions(histogram.getSubmissions());
+        analytics.setScoreSum(histogram.getScoreSum());
+        analytics.setMinScore(histogram.getMinScore());
+        analytics.setMaxScore(histogram.getMaxScore());
+        analytics.setPassed(histogram.getPassed());
+        analytics.setRange90To100(histogram.getRange90To100());
+        analytics.setRange80To89(histogram.getRange80To89());
+        analytics.setRange70To79(histogram.getRange70To79());
+        analytics.setRange60To69(histogram.getRange60To69());
+        analytics.setRange50To59(histogram.getRange50To59());
+        analytics.setRangeBelow50(histogram.getRangeBelow50());
+        analytics.getGradeCounts().clear();
+        analytics.getGradeCounts().putAll(gradeCounts);
+        
+        examAnalyticsRepository.save(analytics);
+        log.info("Rebuilt analytics for exam {}: {} submissions", examId, histogram.getSubmissions());
+    }
+
+    public Map<String, Object> getAnalytics(String examId) {
+        ExamAnalytics analytics = examAnalyticsRepository.findById(examId).orElse(null);
+        
+        if (analytics == null || analytics.getSubmissions() == 0) {
+            return Map.of("message", "No submissions yet");
+        }
+        
+        double total = analytics.getSubmissions();
+        Map<String, Object> result = new HashMap<>();
+        result.put("totalSubmissions", analytics.getSubmissions());
+        result.put("averageScore", analytics.getScoreSum() / total);
+        result.put("highestScore", analytics.getMaxScore());
+        result.put("lowestScore", analytics.getMinScore());
+        result.put("passRate", analytics.getPassed() * 100.0 / total);
+        result.put("gradeDistribution", new HashMap<>(analytics.getGradeCounts()));
+        
+        Map<String, Double> scoreRanges = new HashMap<>();
+        scoreRanges.put("90-100", analytics.getRange90To100() * 100.0 / total);
+        scoreRanges.put("80-89", analytics.getRange80To89() * 100.0 / total);
+        scoreRanges.put("70-79", analytics.getRange70To79() * 100.0 / total);
+        scoreRanges.put("60-69", analytics.getRange60To69() * 100.0 / total);
+        scoreRanges.put("50-59", analytics.getRange50To59() * 100.0 / total);
+        scoreRanges.put("Below 50", analytics.getRangeBelow50() * 100.0 / total);
+        result.put("scoreRanges", scoreRanges);
+        
+        return result;
+    }
+
+    private ExamAnalytics lockRow(String examId) {
+        return examAnalyticsRepository.findByIdForUpdate(examId)
+                .orElseThrow(() -> new RuntimeException("Analytics row missing for exam: " + examId));
+    }
+
+    private void applyResult(ExamAnalytics analytics, int score, String grade, int delta) {
+        analytics.setSubmissions(analytics.getSubmissions() + delta);
+        analytics.setScoreSum(analytics.getScoreSum() + (long) score * delta);
+        if (score >= 50) {
+            analytics.setPassed(analytics.getPassed() + delta);
+        }
+        
+        if (score >= 90) {
+            analytics.setRange90To100(analytics.getRange90To100() + delta);
+        } else if (score >= 80) {
+            analytics.setRange80To89(analytics.getRange80To89() + delta);
+        } else if (score >= 70) {
+            analytics.setRange70To79(analytics.getRange70To79() + delta);
+        } else if (score >= 60) {
+            analytics.setRange60To69(analytics.getRange60To69() + delta);
+        } else if (score >= 50) {
+            analytics.setRange50To59(analytics.getRange50To59() + delta);
+        } else {
+            analytics.setRangeBelow50(analytics.getRangeBelow50() + delta);
+        }
+        
+        if (grade != null) {
+            long count = analytics.getGradeCounts().getOrDefault(grade, 0L) + delta;
+            if (count > 0) {
+                analytics.getGradeCounts().put(grade, count);
+            } else {
+                analytics.getGradeCounts().remove(grade);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.Exam;
+import com.examino.ai.model.ExamAttempt;
+import com.examino.ai.repository.ExamAttemptRepository;
+import com.examino.ai.repository.ExamRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side exam attempts. Starting an attempt fixes its deadline from
+ * Exam.duration and registers it on a hierarchical timing wheel; when the
+ * deadline (plus a grace period for in-flight submissions) passes without a
+ * submission, an AttemptDeadlineEvent is published and StudentService grades
+ * the last saved answers through the normal submission path.
+ */
+@Service
+@Slf4j
+public class ExamAttemptService {
+
+    public record AttemptDeadlineEvent(String attemptId) {
+    }
+
+    private static final List<String> FINISHED_STATUSES =
+            List.of(ExamAttempt.SUBMITTING, ExamAttempt.SUBMITTED, ExamAttempt.AUTO_SUBMITTED);
+
+    private final ExamAttemptRepository attemptRepository;
+    private final ExamRepository examRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration gracePeriod;
+    private final Duration retryDelay;
+    private final ExecutorService autoSubmitExecutor;
+    private final HierarchicalTimingWheel timingWheel;
+    private final Map<String, HierarchicalTimingWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong autoSubmitted = new AtomicLong();
+    private final AtomicLong autoSubmitFailures = new AtomicLong();
+
+    public ExamAttemptService(ExamAttemptRepository attemptRepository,
+                              ExamRepository examRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${exam.attempt.grace-seconds:30}") long graceSeconds,
+                              @Value("${exam.attempt.retry-seconds:60}") long retrySeconds,
+                              @Value("${exam.attempt.auto-submit-threads:4}") int autoSubmitThreads,
+                              @Value("${exam.attempt.timer.tick-ms:1000}") long tickMs,
+                              @Value("${exam.attempt.timer.wheel-size:512}") int wheelSize) {
+        this.attemptRepository = attemptRepository;
+        this.examRepository = examRepository;
+        this.eventPublisher = eventPublisher;
+        this.gracePeriod = Duration.ofSeconds(graceSeconds);
+        this.retryDelay = Duration.ofSeconds(retrySeconds);
+        this.autoSubmitExecutor = Executors.newFixedThreadPool(autoSubmitThreads, runnable -> {
+            Thread thread = new Thread(runnable, "exam-auto-submit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timingWheel = new HierarchicalTimingWheel("exam-deadline-wheel", tickMs, wheelSize,
+                autoSubmitExecutor, this::onDeadline);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleOpenAttempts() {
+        // Submissions interrupted by a shutdown are reopened; the deadline timer submits them again
+        int reopened = attemptRepository.updateStatus(ExamAttempt.SUBMITTING, ExamAttempt.IN_PROGRESS);
+        if (reopened > 0) {
+            log.warn("Reopened {} exam attempts left mid-submission", reopened);
+        }
+        
+        int recovered = 0;
+        for (Object[] row : attemptRepository.findIdsAndDeadlinesByStatus(ExamAttempt.IN_PROGRESS)) {
+            schedule((String) row[0], (Instant) row[1]);
+            recovered++;
+        }
+        if (recovered > 0) {
+            log.info("Rescheduled deadlines for {} open exam attempts", recovered);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timingWheel.shutdown();
+        autoSubmitExecutor.shutdown();
+    }
+
+    @Transactional
+    public ExamAttempt startAttempt(String studentId, String examId) {
+        ExamAttempt open = attemptRepository
+                .findFirstByStudentIdAndExamIdAndStatus(studentId, examId, ExamAttempt.IN_PROGRESS)
+                .orElse(null);
+        if (open != null) {
+            return open;
+        }
+        if (attemptRepository.existsByStudentIdAndExamIdAndStatusIn(studentId, examId, FINISHED_STATUSES)) {
+            throw new RuntimeException("Exam already submitted");
+        }
+        
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new RuntimeException("Exam not found"));
+        if (!exam.isActive()) {
+            throw new RuntimeException("Exam is not active");
+        }
+        
+        Instant now = Instant.now();
+        ExamAttempt attempt = ExamAttempt.builder()
+                .studentId(studentId)
+                .examId(examId)
+                .status(ExamAttempt.IN_PROGRESS)
+                .startedAt(now)
+                .lastSavedAt(now)
+                .deadline(now.plus(Duration.ofMinutes(exam.getDuration() == null ? 60 : exam.getDuration())))
+                .build();
+        attempt = attemptRepository.save(attempt);
+        schedule(attempt.getAttemptId(), attempt.getDeadline());
+        started.incrementAndGet();
+        log.info("Exam attempt started: attemptId={}, studentId={}, examId={}, deadline={}",
+                attempt.getAttemptId(), studentId, examId, attempt.getDeadline());
+        return attempt;
+    }
+
+    @Transactional
+    public ExamAttempt saveAnswers(String attemptId, String studentId, Map<String, String> answers) {
+        ExamAttempt attempt = lockOwnedAttempt(attemptId, studentId);
+        if (!ExamAttempt.IN_PROGRESS.equals(attempt.getStatus())) {
+            throw new RuntimeException("Attempt is already submitted");
+        }
+        if (isPastDeadline(attempt, Instant.now())) {
+            throw new RuntimeException("Attempt deadline has passed");
+        }
+        attempt.getAnswers().putAll(answers);
+        attempt.setLastSavedAt(Instant.now());
+        return attempt;
+    }
+
+    /**
+     * Moves an open attempt to SUBMITTING and returns it, or returns null if
+     * it was already claimed. Answers sent after the deadline are ignored in
+     * favour of the last ones saved in time. studentId is null for auto-submits.
+     */
+    @Transactional
+    public ExamAttempt claimForSubmission(String attemptId, String studentId, Map<String, String> answers) {
+        ExamAttempt attempt = studentId == null
+                ? attemptRepository.findByIdForUpdate(attemptId).orElse(null)
+                : lockOwnedAttempt(attemptId, studentId);
+        if (attempt == null || !ExamAttempt.IN_PROGRESS.equals(attempt.getStatus())) {
+            return null;
+        }
+        
+        Instant now = Instant.now();
+        if (answers != null && !isPastDeadline(attempt, now)) {
+            attempt.getAnswers().putAll(answers);
+            attempt.setLastSavedAt(now);
+        }
+        attempt.setStatus(ExamAttempt.SUBMITTING);
+        timingWheel.cancel(timeouts.remove(attemptId));
+        return attempt;
+    }
+
+    /**
+     * Claims the student's open attempt for a submission that carries no
+     * attempt id. Returns null only for an untimed exam the student never
+     * started, which may be graded directly; a timed exam has to be started
+     * first, and a finished attempt is never submitted twice.
+     */
+    @Transactional
+    public ExamAttempt claimOpenAttempt(String studentId, String examId, Map<String, String> answers) {
+        if (studentId == null) {
+            throw new RuntimeException("Student id is required");
+        }
+        ExamAttempt open = attemptRepository
+                .findFirstByStudentIdAndExamIdAndStatus(studentId, examId, ExamAttempt.IN_PROGRESS)
+                .orElse(null);
+        if (open != null) {
+            ExamAttempt claimed = claimForSubmission(open.getAttemptId(), studentId, answers);
+            if (claimed == null) {
+                throw new RuntimeException("Attempt is already submitted");
+            }
+            return claimed;
+        }
+        if (attemptRepository.existsByStudentIdAndExamIdAndStatusIn(studentId, examId, FINISHED_STATUSES)) {
+            throw new RuntimeException("Exam already submitted");
+        }
+        
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new RuntimeException("Exam not found"));
+        if (exam.getDuration() != null && exam.getDuration() > 0) {
+            throw new RuntimeException("Exam attempt has not been started");
+        }
+        return null;
+    }
+
+    @Transactional
+    public void completeAttempt(String attemptId, String resultId, boolean automatic) {
+        attemptRepository.findByIdForUpdate(attemptId).ifPresent(attempt -> {
+            attempt.setStatus(automatic ? ExamAttempt.AUTO_SUBMITTED : ExamAttempt.SUBMITTED);
+            attempt.setSubmittedAt(Instant.now());
+            attempt.setResultId(resultId);
+        });
+        (automatic ? autoSubmitted : submitted).incrementAndGet();
+    }
+
+    /**
+     * Reopens an attempt whose grading failed. Auto-submits are retried after
+     * a delay; a student's own submission can simply be sent again.
+     */
+    @Transactional
+    public void releaseAttempt(String attemptId, boolean automatic) {
+        attemptRepository.findByIdForUpdate(attemptId).ifPresent(attempt -> {
+            attempt.setStatus(ExamAttempt.IN_PROGRESS);
+            if (automatic) {
+                autoSubmitFailures.incrementAndGet();
+                schedule(attemptId, Instant.now().plus(retryDelay).minus(gracePeriod));
+            } else {
+                schedule(attemptId, attempt.getDeadline());
+            }
+        });
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>(timingWheel.getStatistics());
+        statistics.put("attemptsStarted", started.get());
+        statistics.put("attemptsSubmitted", submitted.get());
+        statistics.put("attemptsAutoSubmitted", autoSubmitted.get());
+        statistics.put("autoSubmitFailures", autoSubmitFailures.get());
+        statistics.put("trackedDeadlines", timeouts.size());
+        return statistics;
+    }
+
+    private void schedule(String attemptId, Instant deadline) {
+        long fireAt = deadline.plus(gracePeriod).toEpochMilli();
+        HierarchicalTimingWheel.Timeout previous = timeouts.put(attemptId, timingWheel.schedule(attemptId, fireAt));
+        timingWheel.cancel(previous);
+    }
+
+    private void onDeadline(HierarchicalTimingWheel.Timeout timeout) {
+        timeouts.remove(timeout.getId(), timeout);
+        eventPublisher.publishEvent(new AttemptDeadlineEvent(timeout.getId()));
+    }
+
+    private ExamAttempt lockOwnedAttempt(String attemptId, String studentId) {
+        ExamAttempt attempt = attemptRepository.findByIdForUpdate(attemptId)
+                .orElseThrow(() -> new RuntimeException("Attempt not found"));
+        if (!attempt.getStudentId().equals(studentId)) {
+            throw new RuntimeException("Attempt not found");
+        }
+        return attempt;
+    }
+
+    private boolean isPastDeadline(ExamAttempt attempt, Instant now) {
+        return now.isAfter(attempt.getDeadline().plus(gracePeriod));
+    }
+}
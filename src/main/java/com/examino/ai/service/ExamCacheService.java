@@ -0,0 +1,79 @@
+package com.examino.ai.service;
+
+import com.examino.ai.config.CacheConfig;
+import com.examino.ai.model.Exam;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Explicit eviction and reporting for the exam/question second-level cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExamCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ExamPayloadService examPayloadService;
+
+    public void evictExam(String examId) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Exam.class, examId);
+        sessionFactory.getCache().evictCollectionData(CacheConfig.EXAM_QUESTIONS_REGION, examId);
+        examPayloadService.evict(examId);
+        evictExamListings();
+    }
+
+    public void evictExamListings() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        long entityHits = statistics.getSecondLevelCacheHitCount();
+        long entityMisses = statistics.getSecondLevelCacheMissCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+        long queryMisses = statistics.getQueryCacheMissCount();
+        
+        Map<String, Object> regions = new HashMap<>();
+        for (String region : List.of(CacheConfig.EXAM_REGION, CacheConfig.EXAM_QUESTIONS_REGION, CacheConfig.QUESTION_REGION)) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.put(region, Map.of(
+                    "hits", regionStatistics.getHitCount(),
+                    "misses", regionStatistics.getMissCount(),
+                    "puts", regionStatistics.getPutCount(),
+                    "hitRatio", hitRatio(regionStatistics.getHitCount(), regionStatistics.getMissCount())
+                ));
+            }
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("secondLevelCacheHits", entityHits);
+        result.put("secondLevelCacheMisses", entityMisses);
+        result.put("secondLevelCacheHitRatio", hitRatio(entityHits, entityMisses));
+        result.put("queryCacheHits", queryHits);
+        result.put("queryCacheMisses", queryMisses);
+        result.put("queryCacheHitRatio", hitRatio(queryHits, queryMisses));
+        // Every hit is a statement that did not reach MySQL
+        result.put("dbQueriesSaved", entityHits + queryHits);
+        result.put("regions", regions);
+        result.put("serializedPayloads", examPayloadService.getStatistics());
+        return result;
+    }
+
+    private double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total > 0 ? Math.round(hits * 10000.0 / total) / 100.0 : 0.0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.examino.ai.service;
+
+import com.examino.ai.dto.ExamPayload;
+import com.examino.ai.dto.QuestionPayload;
+import com.examino.ai.model.Exam;
+import com.examino.ai.repository.ExamRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes the exam-taking payload once per exam and keeps the JSON and
+ * gzip bytes, so the exam-start burst is served without Jackson or gzip work.
+ */
+@Service
+@Slf4j
+public class ExamPayloadService {
+
+    private final ExamRepository examRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<String, SerializedExam> payloads;
+
+    public ExamPayloadService(ExamRepository examRepository,
+                              @Value("${cache.exam.max-entries:2000}") long maxEntries,
+                              @Value("${cache.exam.ttl-minutes:60}") long ttlMinutes) {
+        this.examRepository = examRepository;
+        this.payloads = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public SerializedExam getPayload(String examId) {
+        return payloads.get(examId, this::serialize);
+    }
+
+    public void evict(String examId) {
+        payloads.invalidate(examId);
+    }
+
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = payloads.stats();
+        return Map.of(
+            "entries", payloads.estimatedSize(),
+            "hits", stats.hitCount(),
+            "misses", stats.missCount(),
+            "hitRatio", Math.round(stats.hitRate() * 10000.0) / 100.0
+        );
+    }
+
+    private SerializedExam serialize(String examId) {
+        Exam exam = examRepository.findById(examId).orElse(null);
+        if (exam == null) {
+            return null;
+        }
+        
+        ExamPayload payload = ExamPayload.builder()
+                .examId(exam.getExamId())
+                .title(exam.getTitle())
+                .description(exam.getDescription())
+                .duration(exam.getDuration())
+                .questions(exam.getQuestions().stream()
+                        .map(q -> QuestionPayload.builder()
+                                .questionId(q.getQuestionId())
+                                .questionText(q.getQuestionText())
+                                .marks(q.getMarks())
+                                .type(q.getType())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+        
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 2 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+            
+            log.debug("Serialized exam payload {}: {} bytes, {} gzipped", examId, json.length, compressed.size());
+            return new SerializedExam(etag, json, compressed.toByteArray());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize exam " + examId, e);
+        }
+    }
+
+    public static class SerializedExam {
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        public SerializedExam(String etag, byte[] json, byte[] gzip) {
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public String getEtag() { return etag; }
+        public byte[] getJson() { return json; }
+        public byte[] getGzip() { return gzip; }
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
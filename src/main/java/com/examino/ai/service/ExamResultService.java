@@ -0,0 +1,153 @@
+package com.examino.ai.service;
+
+import com.examino.ai.dto.ExamResultSummary;
+import com.examino.ai.dto.ResultPage;
+import com.examino.ai.model.ExamResult;
+import com.examino.ai.repository.ExamResultRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Single write path for exam results. Every derived aggregate is updated in
+ * the same transaction as the result row it is derived from.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExamResultService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Sorts after every real row, so the first page needs no special-case query
+    private static final Instant FIRST_PAGE_CREATED_AT = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final ExamResultRepository examResultRepository;
+    private final ExamAnalyticsService examAnalyticsService;
+    private final StudentDashboardService studentDashboardService;
+    private final FileStorageService fileStorageService;
+    private final PlagiarismIndexService plagiarismIndexService;
+
+    @Transactional
+    public ExamResult saveResult(ExamResult result) {
+        ExamResult saved = examResultRepository.save(result);
+        examAnalyticsService.recordResult(saved);
+        studentDashboardService.recordResult(saved);
+        plagiarismIndexService.indexResult(saved);
+        return saved;
+    }
+
+    @Transactional
+    public void deleteResult(String resultId) {
+        examResultRepository.findById(resultId).ifPresent(result -> {
+            examResultRepository.delete(result);
+            examResultRepository.flush();
+            examAnalyticsService.removeResult(result);
+            studentDashboardService.removeResult(result);
+            plagiarismIndexService.removeResult(result.getExamId(), resultId);
+            if (result.getAnswerPaperPath() != null) {
+                fileStorageService.deleteFile(result.getAnswerPaperPath());
+            }
+            log.info("Deleted exam result: {}", resultId);
+        });
+    }
+
+    @Transactional
+    public void deleteResultsForExam(String examId) {
+        List<String> studentIds = examResultRepository.findDistinctStudentIdsByExamId(examId);
+        List<String> answerPapers = examResultRepository.findAnswerPaperPathsByExamId(examId);
+        examResultRepository.deleteByExamId(examId);
+        answerPapers.forEach(fileStorageService::deleteFile);
+        examAnalyticsService.removeExam(examId);
+        plagiarismIndexService.removeExam(examId);
+        studentIds.forEach(studentDashboardService::rebuild);
+    }
+
+    public ResultPage<ExamResultSummary> getExamResultsPage(String examId, String cursor, Integer limit, boolean includeText) {
+        int pageSize = pageSize(limit);
+        String[] position = decodeCursor(cursor);
+        List<ExamResultSummary> rows = examResultRepository.findSummariesByExamIdBefore(
+                examId, Instant.parse(position[0]), position[1], PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize, includeText);
+    }
+
+    public ResultPage<ExamResultSummary> getStudentResultsPage(String studentId, String cursor, Integer limit, boolean includeText) {
+        int pageSize = pageSize(limit);
+        String[] position = decodeCursor(cursor);
+        List<ExamResultSummary> rows = examResultRepository.findSummariesByStudentIdBefore(
+                studentId, Instant.parse(position[0]), position[1], PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize, includeText);
+    }
+
+    public ExamResult getResult(String resultId) {
+        return examResultRepository.findById(resultId)
+                .orElseThrow(() -> new RuntimeException("Result not found"));
+    }
+
+    private ResultPage<ExamResultSummary> toPage(List<ExamResultSummary> rows, int pageSize, boolean includeText) {
+        // One extra row is fetched to know whether another page exists
+        boolean hasMore = rows.size() > pageSize;
+        List<ExamResultSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        if (includeText && !items.isEmpty()) {
+            Map<String, String> texts = new HashMap<>();
+            List<String> ids = items.stream().map(ExamResultSummary::getResultId).collect(Collectors.toList());
+            for (Object[] row : examResultRepository.findExtractedTextByResultIds(ids)) {
+                texts.put((String) row[0], (String) row[1]);
+            }
+            items.forEach(item -> item.setExtractedText(texts.get(item.getResultId())));
+        }
+        
+        String nextCursor = null;
+        if (hasMore) {
+            ExamResultSummary last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getResultId());
+        }
+        
+        return ResultPage.<ExamResultSummary>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .limit(pageSize)
+                .build();
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private String encodeCursor(Instant createdAt, String resultId) {
+        String raw = createdAt + "|" + resultId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new String[]{FIRST_PAGE_CREATED_AT.toString(), ""};
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|", 2);
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Instant.parse(position[0]);
+            return position;
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.examino.ai.service;
+
+import com.examino.ai.repository.ExamRepository;
+import com.examino.ai.repository.ExamResultRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves uploads from the flat "{uuid}_{name}" layout into the content store
+ * and re-points the exam and result rows that reference them. Each file is
+ * copied first, rows are updated next and the legacy file is deleted last,
+ * so an interrupted run can only leave an extra reference, never a dangling
+ * path. Safe to re-run; it is a no-op once the flat directory is empty.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileStorageMigrationService {
+
+    private final FileStorageService fileStorageService;
+    private final ExamRepository examRepository;
+    private final ExamResultRepository examResultRepository;
+
+    @Value("${storage.migration.on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (migrateOnStartup) {
+            migrateLegacyFiles();
+        }
+    }
+
+    public Map<String, Object> migrateLegacyFiles() {
+        int migrated = 0;
+        int orphaned = 0;
+        int failed = 0;
+        
+        List<Path> legacyFiles;
+        try {
+            legacyFiles = fileStorageService.listLegacyFiles();
+        } catch (Exception e) {
+            throw new RuntimeException("Could not list legacy uploads", e);
+        }
+        
+        for (Path legacyFile : legacyFiles) {
+            String oldKey = legacyFile.getFileName().toString();
+            try {
+                long references = examRepository.countByQuestionPaperPath(oldKey)
+                        + examResultRepository.countByAnswerPaperPath(oldKey);
+                String newKey = fileStorageService.importLegacyFile(legacyFile, references);
+                examRepository.updateQuestionPaperPath(oldKey, newKey);
+                examResultRepository.updateAnswerPaperPath(oldKey, newKey);
+                fileStorageService.deleteFile(oldKey);
+                
+                migrated++;
+                if (references == 0) {
+                    orphaned++;
+                }
+            } catch (Exception e) {
+                failed++;
+                log.error("Could not migrate upload {}: {}", oldKey, e.getMessage());
+            }
+        }
+        
+        if (!legacyFiles.isEmpty()) {
+            log.info("Upload migration: {} migrated ({} unreferenced), {} failed", migrated, orphaned, failed);
+        }
+        
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("migrated", migrated);
+        summary.put("unreferenced", orphaned);
+        summary.put("failed", failed);
+        return summary;
+    }
+}
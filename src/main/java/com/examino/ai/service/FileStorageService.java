@@ -1,44 +1,81 @@
 package com.examino.ai.service;
 
+import com.examino.ai.config.StorageConfig;
+import com.examino.ai.dto.StoredFile;
+import com.examino.ai.model.StoredBlob;
+import com.examino.ai.repository.StoredBlobRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Content-addressed upload store. Files are keyed by the SHA-256 of their
+ * content and kept in the configured BlobStore (uploads/ab/cd/abcd... for
+ * the local backend); identical uploads share one blob and StoredBlob counts
+ * the references to it. Stored keys have the form
+ * "{sha256}_{originalName}" so the download name survives deduplication.
+ * Keys written before this layout ("{uuid}_{originalName}" in the flat upload
+ * directory) still resolve until FileStorageMigrationService moves them.
+ */
 @Service
 @Slf4j
 public class FileStorageService {
 
+    private static final Pattern CONTENT_KEY = Pattern.compile("^([0-9a-f]{64})_(.*)$");
+    private static final Pattern LEGACY_KEY = Pattern.compile("^[0-9a-fA-F-]{36}_(.+)$");
+
     private final Path fileStorageLocation;
+    private final Path tempLocation;
+    private final StoredBlobRepository blobRepository;
+    private final BlobStore blobStore;
+
+    private final AtomicLong blobsWritten = new AtomicLong();
+    private final AtomicLong deduplicatedUploads = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
 
-    public FileStorageService() {
-        this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
+    public FileStorageService(StoredBlobRepository blobRepository, BlobStore blobStore) {
+        this.blobRepository = blobRepository;
+        this.blobStore = blobStore;
+        this.fileStorageLocation = StorageConfig.UPLOAD_ROOT;
+        // Temp files live under the store so the final rename stays on one filesystem
+        this.tempLocation = StorageConfig.TEMP_LOCATION;
         try {
-            Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
         } catch (Exception ex) {
             throw new RuntimeException("Could not create upload directory", ex);
         }
     }
 
     public String storeFile(MultipartFile file, String type) {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        
-        try {
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
-            log.info("File stored: {} (type: {})", fileName, type);
-            return fileName;
+        String originalName = sanitizeName(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            String key = store(in, originalName, 1);
+            log.info("File stored: {} (type: {})", key, type);
+            return key;
         } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + fileName, ex);
+            throw new RuntimeException("Could not store file " + originalName, ex);
         }
     }
 
@@ -46,28 +83,165 @@ public class FileStorageService {
         return storeFile(file, "general");
     }
 
-    public Resource loadFileAsResource(String fileName) {
+    /**
+     * Copies a file from the flat pre-sharding layout into the content store
+     * with the given number of references and returns its new key. The legacy
+     * file is left in place; the caller deletes it once rows are re-pointed.
+     */
+    public String importLegacyFile(Path legacyFile, long references) throws IOException {
+        String legacyName = legacyFile.getFileName().toString();
+        try (InputStream in = Files.newInputStream(legacyFile)) {
+            return store(in, displayName(legacyName), references);
+        }
+    }
+
+    public List<Path> listLegacyFiles() throws IOException {
+        try (Stream<Path> entries = Files.list(this.fileStorageLocation)) {
+            return entries.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    public StoredFile loadFile(String key) {
+        Path filePath;
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists()) {
-                return resource;
-            } else {
-                throw new RuntimeException("File not found: " + fileName);
-            }
+            filePath = resolve(key);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not fetch file " + key, ex);
+        }
+        if (filePath == null || !Files.isRegularFile(filePath)) {
+            throw new RuntimeException("File not found: " + key);
+        }
+        return new StoredFile(filePath, displayName(key));
+    }
+
+    public Resource loadFileAsResource(String key) {
+        try {
+            return new UrlResource(loadFile(key).getPath().toUri());
         } catch (Exception ex) {
-            throw new RuntimeException("File not found: " + fileName, ex);
+            throw new RuntimeException("File not found: " + key, ex);
+        }
+    }
+
+    /**
+     * Drops one reference. Blobs are not unlinked here: StorageSweeperService
+     * removes them once they have stayed unreferenced past the grace period,
+     * so a rolled-back delete never loses a file.
+     */
+    public void deleteFile(String key) {
+        Matcher matcher = CONTENT_KEY.matcher(key);
+        if (matcher.matches()) {
+            if (blobRepository.releaseReferences(matcher.group(1), 1, Instant.now()) == 0) {
+                log.warn("Released a reference to an unknown or unreferenced blob: {}", key);
+            }
+            return;
+        }
+        
+        try {
+            Path filePath = legacyPath(key);
+            if (filePath != null) {
+                Files.deleteIfExists(filePath);
+                log.info("File deleted: {}", key);
+            }
+        } catch (IOException ex) {
+            log.error("Could not delete file: {}", key, ex);
         }
     }
 
-    public void deleteFile(String fileName) {
+    /**
+     * Unlinks a blob if it is still unreferenced. The row lock makes a
+     * concurrent upload of the same content wait until the file is gone, after
+     * which it writes a fresh copy.
+     */
+    @Transactional
+    public boolean purgeIfUnreferenced(String hash) {
+        StoredBlob blob = blobRepository.findByIdForUpdate(hash).orElse(null);
+        if (blob == null || blob.getRefCount() > 0) {
+            return false;
+        }
         try {
-            Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-            Files.deleteIfExists(filePath);
-            log.info("File deleted: {}", fileName);
+            blobStore.delete(hash);
         } catch (IOException ex) {
-            log.error("Could not delete file: {}", fileName, ex);
+            throw new RuntimeException("Could not delete blob " + hash, ex);
+        }
+        blobRepository.delete(blob);
+        return true;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>(blobStore.getStatistics());
+        Object[] totals = blobRepository.getTotals().get(0);
+        statistics.put("blobs", totals[0]);
+        statistics.put("blobBytes", totals[1]);
+        statistics.put("references", totals[2]);
+        statistics.put("blobsWritten", blobsWritten.get());
+        statistics.put("deduplicatedUploads", deduplicatedUploads.get());
+        statistics.put("bytesReceived", bytesReceived.get());
+        return statistics;
+    }
+
+    private String store(InputStream in, String originalName, long references) throws IOException {
+        Path temp = Files.createTempFile(this.tempLocation, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream digestStream = new DigestInputStream(in, digest)) {
+                size = Files.copy(digestStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            bytesReceived.addAndGet(size);
+            
+            // Count the reference before the file is visible; this waits on a purge in progress
+            blobRepository.addReferences(hash, size, references, Instant.now());
+            try {
+                if (blobStore.exists(hash)) {
+                    deduplicatedUploads.incrementAndGet();
+                } else {
+                    blobStore.write(hash, temp);
+                    blobsWritten.incrementAndGet();
+                }
+            } catch (IOException | RuntimeException ex) {
+                blobRepository.releaseReferences(hash, references, Instant.now());
+                throw ex;
+            }
+            return hash + "_" + originalName;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path resolve(String key) throws IOException {
+        Matcher matcher = CONTENT_KEY.matcher(key);
+        if (matcher.matches()) {
+            return blobStore.getLocalPath(matcher.group(1));
+        }
+        return legacyPath(key);
+    }
+
+    // Pre-sharding uploads always live flat in the local upload directory
+    private Path legacyPath(String key) {
+        Path filePath = this.fileStorageLocation.resolve(key).normalize();
+        return filePath.getParent().equals(this.fileStorageLocation) ? filePath : null;
+    }
+
+    private static String displayName(String key) {
+        Matcher matcher = CONTENT_KEY.matcher(key);
+        if (matcher.matches()) {
+            return matcher.group(2);
+        }
+        matcher = LEGACY_KEY.matcher(key);
+        return matcher.matches() ? matcher.group(1) : key;
+    }
+
+    private static String sanitizeName(String originalName) {
+        String name = StringUtils.getFilename(StringUtils.cleanPath(originalName == null ? "" : originalName));
+        return name == null || name.isBlank() ? "file" : name;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
@@ -0,0 +1,216 @@
+package com.examino.ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for large numbers of coarse deadlines. Adding or
+ * cancelling a timer is O(1); timers further out than one wheel's span go to
+ * a coarser overflow wheel and cascade down as the clock reaches them. A
+ * single driver thread sleeps until the earliest non-empty bucket is due, so
+ * an idle wheel costs nothing. Expired timers are handed to the executor.
+ */
+@Slf4j
+public class HierarchicalTimingWheel {
+
+    public static final class Timeout {
+        private final String id;
+        private final long deadlineMs;
+        private volatile boolean cancelled;
+        private volatile boolean fired;
+
+        private Timeout(String id, long deadlineMs) {
+            this.id = id;
+            this.deadlineMs = deadlineMs;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+    }
+
+    private static final class Bucket {
+        private final ArrayDeque<Timeout> timeouts = new ArrayDeque<>();
+        private long expirationMs = -1;
+    }
+
+    private final class Wheel {
+        private final long tickMs;
+        private final long intervalMs;
+        private final Bucket[] buckets;
+        private long currentTimeMs;
+        private Wheel overflow;
+
+        private Wheel(long tickMs, long startMs) {
+            this.tickMs = tickMs;
+            this.intervalMs = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTimeMs = startMs - (startMs % tickMs);
+        }
+
+        // Returns false when the timeout is already due and must fire now
+        private boolean add(Timeout timeout) {
+            if (timeout.deadlineMs < currentTimeMs + tickMs) {
+                return false;
+            }
+            if (timeout.deadlineMs < currentTimeMs + intervalMs) {
+                long virtualId = timeout.deadlineMs / tickMs;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.timeouts.add(timeout);
+                long expiration = virtualId * tickMs;
+                if (bucket.expirationMs != expiration) {
+                    bucket.expirationMs = expiration;
+                    dueBuckets.add(bucket);
+                    wakeUp.signal();
+                }
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Wheel(intervalMs, currentTimeMs);
+            }
+            return overflow.add(timeout);
+        }
+
+        private void advanceClock(long timeMs) {
+            if (timeMs >= currentTimeMs + tickMs) {
+                currentTimeMs = timeMs - (timeMs % tickMs);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTimeMs);
+                }
+            }
+        }
+    }
+
+    private final int wheelSize;
+    private final Wheel root;
+    private final Executor executor;
+    private final Consumer<Timeout> action;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUp = lock.newCondition();
+    // Holds at most one entry per bucket per rotation, so its size is bounded by levels * wheelSize
+    private final PriorityQueue<Bucket> dueBuckets = new PriorityQueue<>((a, b) -> Long.compare(a.expirationMs, b.expirationMs));
+    private final Thread driver;
+    private volatile boolean running = true;
+
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong fired = new AtomicLong();
+    private final AtomicLong totalLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+
+    public HierarchicalTimingWheel(String name, long tickMs, int wheelSize, Executor executor, Consumer<Timeout> action) {
+        this.wheelSize = wheelSize;
+        this.root = new Wheel(tickMs, System.currentTimeMillis());
+        this.executor = executor;
+        this.action = action;
+        this.driver = new Thread(this::run, name);
+        this.driver.setDaemon(true);
+        this.driver.start();
+    }
+
+    public Timeout schedule(String id, long deadlineMs) {
+        Timeout timeout = new Timeout(id, deadlineMs);
+        scheduled.incrementAndGet();
+        boolean added;
+        lock.lock();
+        try {
+            added = root.add(timeout);
+        } finally {
+            lock.unlock();
+        }
+        if (!added) {
+            fire(timeout);
+        }
+        return timeout;
+    }
+
+    public void cancel(Timeout timeout) {
+        if (timeout != null && !timeout.cancelled && !timeout.fired) {
+            timeout.cancelled = true;
+            cancelled.incrementAndGet();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        driver.interrupt();
+    }
+
+    public Map<String, Object> getStatistics() {
+        long firedCount = fired.get();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("scheduled", scheduled.get());
+        statistics.put("cancelled", cancelled.get());
+        statistics.put("fired", firedCount);
+        statistics.put("pending", scheduled.get() - cancelled.get() - firedCount);
+        statistics.put("averageLagMs", firedCount == 0 ? 0.0 : (double) totalLagMs.get() / firedCount);
+        statistics.put("maxLagMs", maxLagMs.get());
+        return statistics;
+    }
+
+    private void run() {
+        while (running) {
+            ArrayDeque<Timeout> expired = null;
+            lock.lock();
+            try {
+                Bucket next = dueBuckets.peek();
+                long now = System.currentTimeMillis();
+                if (next == null) {
+                    wakeUp.await();
+                } else if (next.expirationMs > now) {
+                    wakeUp.await(next.expirationMs - now, TimeUnit.MILLISECONDS);
+                } else {
+                    dueBuckets.poll();
+                    root.advanceClock(next.expirationMs);
+                    expired = new ArrayDeque<>(next.timeouts);
+                    next.timeouts.clear();
+                    next.expirationMs = -1;
+                    // Timeouts from coarser wheels cascade into finer buckets here
+                    expired.removeIf(timeout -> timeout.cancelled || root.add(timeout));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (expired != null) {
+                expired.forEach(this::fire);
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        if (timeout.cancelled) {
+            return;
+        }
+        timeout.fired = true;
+        long lag = Math.max(0, System.currentTimeMillis() - timeout.deadlineMs);
+        fired.incrementAndGet();
+        totalLagMs.addAndGet(lag);
+        maxLagMs.accumulateAndGet(lag, Math::max);
+        try {
+            executor.execute(() -> action.accept(timeout));
+        } catch (RuntimeException e) {
+            log.error("Could not dispatch timeout {}: {}", timeout.id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.examino.ai.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process stand-in for the S3 backend (storage.backend=memory). Behaves
+ * like a remote store: nothing is readable as a local file, so reads go
+ * through the TieredBlobStore cache exactly as they would against S3.
+ */
+public class InMemoryBlobStore implements BlobStore {
+
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "memory";
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return blobs.containsKey(hash);
+    }
+
+    @Override
+    public void write(String hash, Path source) throws IOException {
+        blobs.put(hash, Files.readAllBytes(source));
+    }
+
+    @Override
+    public void copyTo(String hash, Path target) throws IOException {
+        byte[] content = blobs.get(hash);
+        if (content == null) {
+            throw new IOException("Blob not found: " + hash);
+        }
+        Files.write(target, content, StandardOpenOption.CREATE_NEW);
+    }
+
+    @Override
+    public Path getLocalPath(String hash) {
+        return null;
+    }
+
+    @Override
+    public void delete(String hash) {
+        blobs.remove(hash);
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("backend", getName());
+        statistics.put("blobsInMemory", blobs.size());
+        return statistics;
+    }
+}
@@ -0,0 +1,68 @@
+package com.examino.ai.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The terms that carry an answer's meaning in normalized text: its numbers,
+ * its negations and its content words. Similarity measures over shingles or
+ * n-grams barely move when one of these changes, so graders that copy or
+ * award a grade on similarity check them separately. contradict only looks
+ * at numbers and negations, so a paraphrase in other words still passes.
+ */
+final class KeyTerms {
+
+    private static final Set<String> NEGATIONS = Set.of("not", "no", "never", "none", "nothing", "nor", "cannot", "neither");
+    private static final Set<String> FUNCTION_WORDS = Set.of("the", "and", "for", "are", "was", "were", "with", "that",
+            "this", "its", "has", "have", "had", "from", "into", "they", "them", "then", "than", "which", "what", "when",
+            "also", "because", "there", "their", "been", "will", "can", "may", "would", "could", "should", "very", "such");
+
+    private KeyTerms() {
+    }
+
+    // A changed number, an added "not" or a swapped key term flips the meaning while barely moving the overlap
+    static boolean differ(String normalized, String otherNormalized) {
+        return contradict(normalized, otherNormalized)
+                || !contentWords(normalized).equals(contentWords(otherNormalized));
+    }
+
+    static boolean contradict(String normalized, String otherNormalized) {
+        return !numbers(normalized).equals(numbers(otherNormalized))
+                || negations(normalized) != negations(otherNormalized);
+    }
+
+    private static Set<String> contentWords(String normalized) {
+        Set<String> words = new HashSet<>();
+        for (String token : normalized.split(" ")) {
+            if (token.length() > 2 && !FUNCTION_WORDS.contains(token) && !NEGATIONS.contains(token)) {
+                words.add(token);
+            }
+        }
+        return words;
+    }
+
+    private static List<String> numbers(String normalized) {
+        List<String> numbers = new ArrayList<>();
+        for (String token : normalized.split(" ")) {
+            if (token.chars().anyMatch(Character::isDigit)) {
+                numbers.add(token);
+            }
+        }
+        return numbers;
+    }
+
+    private static int negations(String normalized) {
+        String[] tokens = normalized.split(" ");
+        int count = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            // "isn't" normalizes to "isn t"
+            if (NEGATIONS.contains(tokens[i])
+                    || (tokens[i].equals("t") && i > 0 && tokens[i - 1].endsWith("n"))) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
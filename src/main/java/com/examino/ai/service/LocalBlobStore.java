@@ -0,0 +1,71 @@
+package com.examino.ai.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Blobs on local disk in a two-level hash-prefix layout (root/ab/cd/abcd...).
+ */
+public class LocalBlobStore implements BlobStore {
+
+    private final Path root;
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    public LocalBlobStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.isRegularFile(blobPath(hash));
+    }
+
+    @Override
+    public void write(String hash, Path source) throws IOException {
+        Path target = blobPath(hash);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void copyTo(String hash, Path target) throws IOException {
+        Files.copy(blobPath(hash), target);
+    }
+
+    @Override
+    public Path getLocalPath(String hash) throws IOException {
+        Path path = blobPath(hash);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        bytesServed.addAndGet(Files.size(path));
+        return path;
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        Files.deleteIfExists(blobPath(hash));
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("backend", getName());
+        statistics.put("localBytesServed", bytesServed.get());
+        return statistics;
+    }
+
+    Path blobPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+}
@@ -0,0 +1,136 @@
+package com.examino.ai.service;
+
+import java.util.Arrays;
+
+/**
+ * MinHash sketches over character shingles of normalized text. Two sketches
+ * agree in a signature slot with probability equal to the Jaccard similarity
+ * of their shingle sets, so banding the signature (LSH) turns "find similar
+ * texts" into hash-bucket lookups. Each sketch also keeps its sorted shingle
+ * hashes so candidate pairs can be verified with the exact Jaccard.
+ */
+public final class MinHasher {
+
+    public record Sketch(long[] shingles, int[] signature) {
+    }
+
+    private final int shingleSize;
+    private final long[] seeds;
+
+    public MinHasher(int numHashes, int shingleSize, long seed) {
+        if (numHashes <= 0 || shingleSize <= 0) {
+            throw new IllegalArgumentException("numHashes and shingleSize must be positive");
+        }
+        this.shingleSize = shingleSize;
+        this.seeds = new long[numHashes];
+        long state = seed;
+        for (int i = 0; i < numHashes; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(state);
+        }
+    }
+
+    /** Lower-cases and reduces the text to single-space separated letters and digits. */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /** Sketches text that has already been through {@link #normalize(String)}. */
+    public Sketch sketch(String normalizedText) {
+        int count = Math.max(1, normalizedText.length() - shingleSize + 1);
+        long[] shingles = new long[count];
+        for (int start = 0; start < count; start++) {
+            int end = Math.min(normalizedText.length(), start + shingleSize);
+            long hash = 0xCBF29CE484222325L;
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ normalizedText.charAt(i)) * 0x100000001B3L;
+            }
+            shingles[start] = hash;
+        }
+        Arrays.sort(shingles);
+        int distinct = 0;
+        for (int i = 0; i < shingles.length; i++) {
+            if (i == 0 || shingles[i] != shingles[i - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        shingles = Arrays.copyOf(shingles, distinct);
+        
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int value = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return new Sketch(shingles, signature);
+    }
+
+    /**
+     * One key per band of rows consecutive signature slots; texts sharing any
+     * key are LSH candidates. With b bands of r rows the candidate
+     * probability is 1 - (1 - s^r)^b for Jaccard similarity s.
+     */
+    public long[] bandKeys(Sketch sketch, int bands) {
+        int rows = seeds.length / bands;
+        if (rows == 0) {
+            throw new IllegalArgumentException("More bands than signature slots");
+        }
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long hash = band * 0x9E3779B97F4A7C15L;
+            for (int row = band * rows; row < (band + 1) * rows; row++) {
+                hash = mix(hash ^ sketch.signature()[row]);
+            }
+            keys[band] = hash;
+        }
+        return keys;
+    }
+
+    public static double jaccard(Sketch a, Sketch b) {
+        long[] left = a.shingles();
+        long[] right = b.shingles();
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = left.length + right.length - common;
+        return union == 0 ? 1.0 : (double) common / union;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
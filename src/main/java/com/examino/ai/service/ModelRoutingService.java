@@ -0,0 +1,192 @@
+package com.examino.ai.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chooses the Bedrock model for each grading call. Every item gets a
+ * difficulty score in [0, 1] from answer length, marks, question type and
+ * how confident the local graders were; items under the threshold go to the
+ * fast model and the rest to the strong one. Items a local grader escalated
+ * always go to the strong model. A sample of fast-routed items
+ * is re-graded on the strong model in the background to measure agreement;
+ * those shadow calls are counted apart so they do not skew the route stats.
+ */
+@Service
+@Slf4j
+public class ModelRoutingService {
+
+    public enum Route { FAST, STRONG }
+
+    /**
+     * localConfidence is in [0, 1]: how sure the local graders are about the
+     * answer (1 when they nearly decided it, 0 when they escalated it, 0.5
+     * when there is no local signal at all). escalated marks answers a local
+     * grader tried and gave up on.
+     */
+    public record GradingItem(String questionType, int answerLength, int totalMarks, double localConfidence,
+                              boolean escalated) {
+    }
+
+    private static final Set<String> OPEN_ENDED_TYPES = Set.of("TEXT", "ESSAY", "LONG_ANSWER", "EXPLAIN");
+    private static final int LATENCY_WINDOW = 1024;
+
+    private final String fastModelId;
+    private final String strongModelId;
+    private final boolean routingEnabled;
+    private final double strongThreshold;
+    private final double shadowRate;
+
+    private final Map<Route, RouteStats> stats = new EnumMap<>(Route.class);
+    private final RouteStats shadowStats = new RouteStats();
+    private final ThreadPoolExecutor shadowExecutor;
+
+    private static final class RouteStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder shadowComparisons = new LongAdder();
+        private final LongAdder shadowAgreements = new LongAdder();
+        private final long[] recentLatencies = new long[LATENCY_WINDOW];
+        private long recorded;
+
+        private synchronized void recordLatency(long latencyMs) {
+            recentLatencies[(int) (recorded++ % LATENCY_WINDOW)] = latencyMs;
+        }
+
+        private synchronized long[] snapshot() {
+            return Arrays.copyOf(recentLatencies, (int) Math.min(recorded, LATENCY_WINDOW));
+        }
+    }
+
+    public ModelRoutingService(@Value("${ai.models.fast:anthropic.claude-3-haiku-20240307-v1:0}") String fastModelId,
+                               @Value("${ai.models.strong:anthropic.claude-3-sonnet-20240229-v1:0}") String strongModelId,
+                               @Value("${ai.routing.enabled:true}") boolean routingEnabled,
+                               @Value("${ai.routing.strong-threshold:0.5}") double strongThreshold,
+                               @Value("${ai.routing.shadow-rate:0.05}") double shadowRate,
+                               @Value("${ai.routing.shadow-queue:100}") int shadowQueueCapacity) {
+        this.fastModelId = fastModelId;
+        this.strongModelId = strongModelId;
+        this.routingEnabled = routingEnabled;
+        this.strongThreshold = strongThreshold;
+        this.shadowRate = shadowRate;
+        for (Route route : Route.values()) {
+            stats.put(route, new RouteStats());
+        }
+        // Shadow grading is best effort: when the queue is full the comparison is skipped
+        this.shadowExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, shadowQueueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "model-routing-shadow");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shadowExecutor.shutdownNow();
+    }
+
+    public Route route(GradingItem item) {
+        if (!routingEnabled || item.escalated()) {
+            return Route.STRONG;
+        }
+        return difficulty(item) >= strongThreshold ? Route.STRONG : Route.FAST;
+    }
+
+    public String modelId(Route route) {
+        return route == Route.FAST ? fastModelId : strongModelId;
+    }
+
+    public boolean shouldShadow(Route route) {
+        return route == Route.FAST && shadowRate > 0 && ThreadLocalRandom.current().nextDouble() < shadowRate;
+    }
+
+    public void submitShadow(Runnable comparison) {
+        shadowExecutor.execute(comparison);
+    }
+
+    public void recordCall(Route route, long latencyMs, boolean succeeded) {
+        record(stats.get(route), latencyMs, succeeded);
+    }
+
+    public void recordShadowCall(long latencyMs, boolean succeeded) {
+        record(shadowStats, latencyMs, succeeded);
+    }
+
+    private void record(RouteStats routeStats, long latencyMs, boolean succeeded) {
+        routeStats.calls.increment();
+        if (succeeded) {
+            routeStats.recordLatency(latencyMs);
+        } else {
+            routeStats.failures.increment();
+        }
+    }
+
+    public void recordShadowComparison(Route route, boolean agreed) {
+        RouteStats routeStats = stats.get(route);
+        routeStats.shadowComparisons.increment();
+        if (agreed) {
+            routeStats.shadowAgreements.increment();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("routingEnabled", routingEnabled);
+        statistics.put("strongThreshold", strongThreshold);
+        statistics.put("shadowRate", shadowRate);
+        statistics.put("shadowQueued", shadowExecutor.getQueue().size());
+        stats.forEach((route, routeStats) -> {
+            long comparisons = routeStats.shadowComparisons.sum();
+            Map<String, Object> entry = callStatistics(routeStats);
+            entry.put("modelId", modelId(route));
+            entry.put("shadowComparisons", comparisons);
+            entry.put("agreementRate", comparisons == 0 ? null : (double) routeStats.shadowAgreements.sum() / comparisons);
+            statistics.put(route.name().toLowerCase(), entry);
+        });
+        Map<String, Object> shadow = callStatistics(shadowStats);
+        shadow.put("modelId", strongModelId);
+        statistics.put("shadow", shadow);
+        return statistics;
+    }
+
+    private static Map<String, Object> callStatistics(RouteStats routeStats) {
+        long[] latencies = routeStats.snapshot();
+        Arrays.sort(latencies);
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("calls", routeStats.calls.sum());
+        entry.put("failures", routeStats.failures.sum());
+        entry.put("p50LatencyMs", percentile(latencies, 0.50));
+        entry.put("p95LatencyMs", percentile(latencies, 0.95));
+        return entry;
+    }
+
+    double difficulty(GradingItem item) {
+        String type = QuestionGradingService.normalizeType(item.questionType());
+        double typeScore = OPEN_ENDED_TYPES.contains(type) ? 1.0 : 0.3;
+        double lengthScore = Math.min(1.0, item.answerLength() / 600.0);
+        double marksScore = Math.min(1.0, item.totalMarks() / 20.0);
+        double uncertainty = 1.0 - Math.max(0, Math.min(1, item.localConfidence()));
+        return 0.3 * typeScore + 0.25 * lengthScore + 0.15 * marksScore + 0.3 * uncertainty;
+    }
+
+    private static Long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return null;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(quantile * sorted.length))];
+    }
+}
@@ -0,0 +1,546 @@
+package com.examino.ai.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decides numeric answers without a model call. Both sides are parsed as a
+ * quantity: numerals ("1,250", "3.5e2"), number words ("twenty one", "one
+ * and a half"), fractions and mixed numbers ("3/4", "1 3/4"), an optional
+ * unit ("5 km", "50%") and arithmetic or simple algebraic expressions
+ * ("2(x + 1)", "sqrt(16)"). Constants are compared with a tolerance that
+ * honours the precision of the expected answer; expressions with variables
+ * are compared by evaluating both at fixed sample points. Returns null
+ * whenever either side cannot be read as a quantity, when a plain numeral
+ * is expected but the student wrote arithmetic ("17*23" for "391" may be the
+ * working rather than the result), or when only one side is a percentage,
+ * so those answers reach the AI grader instead.
+ */
+@Component
+public class NumericAnswerEvaluator {
+
+    private static final double RELATIVE_TOLERANCE = 1e-9;
+    private static final double EXPRESSION_TOLERANCE = 1e-7;
+    private static final double[] SAMPLE_POINTS = {0.37, 1.19, 2.71, -0.83, 3.3, -1.7};
+
+    private static final Pattern ANSWER_PREFIX = Pattern.compile("^(?:the\\s+)?(?:answer|ans)(?:\\s+is)?\\s*[:=]?\\s*");
+    private static final Pattern ASSIGNMENT_PREFIX = Pattern.compile("^[a-z]\\s*=\\s*");
+    private static final Pattern THOUSANDS = Pattern.compile("(\\d),(\\d{3})(?!\\d)");
+    private static final Pattern MIXED_NUMBER = Pattern.compile("^(-?)(\\d+)\\s+(\\d+)\\s*/\\s*(\\d+)(.*)$");
+    private static final Pattern NUMERAL = Pattern.compile("^-?(\\d+|\\d*\\.(\\d+))$");
+    // Plain words ("red", "the cat") must not be read as products of variables
+    private static final Pattern MATH_SIGNAL = Pattern.compile("[0-9+\\-*/^()\u221a]|^[a-z]$|^pi$");
+    private static final Pattern ARITHMETIC = Pattern.compile("[+*/^()\u221a]|[\\w)]\\s*-|sqrt|sin|cos|tan|ln|log|abs|exp");
+    private static final Pattern SIMPLE_FRACTION = Pattern.compile("^-?\\d+\\s*/\\s*\\d+$");
+
+    private record Unit(String dimension, double factor) {
+    }
+
+    // decimals is the number of decimal places of a plain numeral, or -1 for anything computed;
+    // arithmetic marks answers written as an operation rather than a number or fraction
+    private record Quantity(ToDoubleFunction<Map<String, Double>> value, Set<String> variables, Unit unit, int decimals,
+                            boolean arithmetic) {
+        boolean isConstant() {
+            return variables.isEmpty();
+        }
+    }
+
+    private static final Map<String, Unit> UNITS = new LinkedHashMap<>();
+    private static final Map<String, Long> NUMBER_WORDS = new HashMap<>();
+    private static final Map<String, Long> SCALE_WORDS = Map.of(
+            "hundred", 100L, "thousand", 1_000L, "million", 1_000_000L, "billion", 1_000_000_000L);
+    private static final Map<String, Integer> FRACTION_WORDS = new HashMap<>();
+
+    static {
+        unit("length", 0.001, "mm", "millimetre", "millimetres", "millimeter", "millimeters");
+        unit("length", 0.01, "cm", "centimetre", "centimetres", "centimeter", "centimeters");
+        unit("length", 1, "m", "metre", "metres", "meter", "meters");
+        unit("length", 1000, "km", "kilometre", "kilometres", "kilometer", "kilometers");
+        unit("length", 0.0254, "in", "inch", "inches");
+        unit("length", 0.3048, "ft", "foot", "feet");
+        unit("length", 1609.344, "mi", "mile", "miles");
+        unit("mass", 0.000001, "mg", "milligram", "milligrams");
+        unit("mass", 0.001, "g", "gram", "grams");
+        unit("mass", 1, "kg", "kilogram", "kilograms");
+        unit("mass", 0.45359237, "lb", "lbs", "pound", "pounds");
+        unit("time", 0.001, "ms", "millisecond", "milliseconds");
+        unit("time", 1, "s", "sec", "secs", "second", "seconds");
+        unit("time", 60, "min", "mins", "minute", "minutes");
+        unit("time", 3600, "h", "hr", "hrs", "hour", "hours");
+        unit("volume", 0.001, "ml", "millilitre", "millilitres", "milliliter", "milliliters");
+        unit("volume", 1, "l", "litre", "litres", "liter", "liters");
+        unit("speed", 1, "m/s");
+        unit("speed", 1000.0 / 3600, "km/h", "kmh", "kph");
+        unit("angle", 1, "\u00b0", "deg", "degree", "degrees");
+        unit("ratio", 0.01, "%", "percent", "per cent");
+
+        String[] ones = {"zero", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine", "ten",
+                "eleven", "twelve", "thirteen", "fourteen", "fifteen", "sixteen", "seventeen", "eighteen", "nineteen"};
+        for (int i = 0; i < ones.length; i++) {
+            NUMBER_WORDS.put(ones[i], (long) i);
+        }
+        String[] tens = {"twenty", "thirty", "forty", "fifty", "sixty", "seventy", "eighty", "ninety"};
+        for (int i = 0; i < tens.length; i++) {
+            NUMBER_WORDS.put(tens[i], (long) (i + 2) * 10);
+        }
+        FRACTION_WORDS.put("half", 2);
+        FRACTION_WORDS.put("halves", 2);
+        FRACTION_WORDS.put("quarter", 4);
+        FRACTION_WORDS.put("quarters", 4);
+        String[] ordinals = {"third", "fourth", "fifth", "sixth", "seventh", "eighth", "ninth", "tenth"};
+        for (int i = 0; i < ordinals.length; i++) {
+            FRACTION_WORDS.put(ordinals[i], i + 3);
+            FRACTION_WORDS.put(ordinals[i] + "s", i + 3);
+        }
+    }
+
+    private static void unit(String dimension, double factor, String... names) {
+        for (String name : names) {
+            UNITS.put(name, new Unit(dimension, factor));
+        }
+    }
+
+    public AiGradingService.GradingResult evaluate(String expectedAnswer, String studentAnswer, int totalMarks) {
+        Quantity expected = parseQuantity(expectedAnswer);
+        if (expected == null) {
+            return null;
+        }
+        Quantity student = parseQuantity(studentAnswer);
+        if (student == null) {
+            return null;
+        }
+        
+        if (expected.decimals() >= 0 && student.arithmetic()) {
+            return null;
+        }
+        if (isRatio(expected.unit()) != isRatio(student.unit())) {
+            // "50%" against "0.5" or "50" depends on how the question asked for it
+            return null;
+        }
+        
+        String note = "";
+        double scale = 1;
+        if (expected.unit() != null && student.unit() != null) {
+            if (!expected.unit().dimension().equals(student.unit().dimension())) {
+                return incorrect("Answer is in the wrong kind of unit");
+            }
+            scale = student.unit().factor() / expected.unit().factor();
+        } else if (expected.unit() != null) {
+            note = " (unit omitted)";
+        } else if (student.unit() != null) {
+            return null;
+        }
+        
+        Boolean equivalent = expected.isConstant() && student.isConstant()
+                ? constantsMatch(expected, student, scale)
+                : expressionsMatch(expected, student, scale);
+        if (equivalent == null) {
+            return null;
+        }
+        if (equivalent) {
+            return new AiGradingService.GradingResult(totalMarks, 100,
+                    "Numerically equivalent to the expected answer" + note, true);
+        }
+        return incorrect("Incorrect value");
+    }
+
+    private static boolean isRatio(Unit unit) {
+        return unit != null && "ratio".equals(unit.dimension());
+    }
+
+    private static AiGradingService.GradingResult incorrect(String feedback) {
+        return new AiGradingService.GradingResult(0, 0, feedback, false);
+    }
+
+    private static Boolean constantsMatch(Quantity expected, Quantity student, double scale) {
+        double expectedValue = expected.value().applyAsDouble(Map.of());
+        double studentValue = student.value().applyAsDouble(Map.of()) * scale;
+        if (!Double.isFinite(expectedValue) || !Double.isFinite(studentValue)) {
+            return null;
+        }
+        // Expected "3.14" accepts anything that rounds to it; for a computed expected value
+        // ("pi", "1/3") the student's own rounding to 2+ places is accepted; integers must match exactly
+        double tolerance = RELATIVE_TOLERANCE * Math.max(1, Math.abs(expectedValue));
+        if (expected.decimals() > 0) {
+            tolerance = Math.max(tolerance, 0.5 * Math.pow(10, -expected.decimals()) + 1e-12);
+        } else if (expected.decimals() < 0 && student.decimals() > 1) {
+            tolerance = Math.max(tolerance, 0.5 * Math.pow(10, -student.decimals()) + 1e-12);
+        }
+        return Math.abs(expectedValue - studentValue) <= tolerance;
+    }
+
+    private static Boolean expressionsMatch(Quantity expected, Quantity student, double scale) {
+        Set<String> variables = new TreeSet<>(expected.variables());
+        variables.addAll(student.variables());
+        int compared = 0;
+        for (int point = 0; point < SAMPLE_POINTS.length; point++) {
+            Map<String, Double> bindings = new HashMap<>();
+            int index = 0;
+            for (String variable : variables) {
+                bindings.put(variable, SAMPLE_POINTS[(point + index++) % SAMPLE_POINTS.length] + index * 0.1);
+            }
+            double expectedValue = expected.value().applyAsDouble(bindings);
+            double studentValue = student.value().applyAsDouble(bindings) * scale;
+            if (!Double.isFinite(expectedValue) || !Double.isFinite(studentValue)) {
+                continue;
+            }
+            compared++;
+            if (Math.abs(expectedValue - studentValue) > EXPRESSION_TOLERANCE * Math.max(1, Math.abs(expectedValue))) {
+                return false;
+            }
+        }
+        return compared >= 3 ? Boolean.TRUE : null;
+    }
+
+    private static Quantity parseQuantity(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String text = raw.trim().toLowerCase(Locale.ROOT)
+                .replace('\u2212', '-').replace('\u00d7', '*').replace('\u00f7', '/').replace("\u03c0", "pi")
+                .replaceAll("[.!]+$", "")
+                .trim();
+        text = ANSWER_PREFIX.matcher(text).replaceFirst("");
+        text = ASSIGNMENT_PREFIX.matcher(text).replaceFirst("");
+        while (THOUSANDS.matcher(text).find()) {
+            text = THOUSANDS.matcher(text).replaceAll("$1$2");
+        }
+        if (text.isEmpty() || text.length() > 200) {
+            return null;
+        }
+        
+        // A unit after a constant wins over algebra: "5 km" is five kilometres, not 5 * k * m
+        for (Map.Entry<String, Unit> unit : UNITS.entrySet()) {
+            String name = unit.getKey();
+            if (!text.endsWith(name) || text.length() == name.length()) {
+                continue;
+            }
+            String prefix = text.substring(0, text.length() - name.length());
+            char boundary = prefix.charAt(prefix.length() - 1);
+            if (Character.isLetter(boundary) && Character.isLetter(name.charAt(0))) {
+                continue;
+            }
+            Quantity quantity = parseValue(prefix.trim(), unit.getValue());
+            if (quantity != null && quantity.isConstant()) {
+                return quantity;
+            }
+        }
+        return parseValue(text, null);
+    }
+
+    private static Quantity parseValue(String text, Unit unit) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        Matcher numeral = NUMERAL.matcher(text);
+        int decimals = !numeral.matches() ? -1 : numeral.group(2) == null ? 0 : numeral.group(2).length();
+        
+        Double words = parseNumberWords(text);
+        if (words != null) {
+            double value = words;
+            return new Quantity(bindings -> value, Set.of(), unit, -1, false);
+        }
+        
+        Matcher mixed = MIXED_NUMBER.matcher(text);
+        if (mixed.matches() && mixed.group(5).isBlank()) {
+            double value = Double.parseDouble(mixed.group(2))
+                    + Double.parseDouble(mixed.group(3)) / Double.parseDouble(mixed.group(4));
+            double signed = mixed.group(1).isEmpty() ? value : -value;
+            return new Quantity(bindings -> signed, Set.of(), unit, -1, false);
+        }
+        
+        if (!MATH_SIGNAL.matcher(text).find()) {
+            return null;
+        }
+        try {
+            ExpressionParser parser = new ExpressionParser(text);
+            ToDoubleFunction<Map<String, Double>> expression = parser.parse();
+            boolean arithmetic = decimals < 0 && ARITHMETIC.matcher(text).find()
+                    && !SIMPLE_FRACTION.matcher(text).matches();
+            return new Quantity(expression, parser.variables, unit, decimals, arithmetic);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cardinal number words with optional sign, decimal "point" digits and
+     * simple fractions ("three quarters", "one and a half").
+     */
+    private static Double parseNumberWords(String text) {
+        String[] tokens = text.split("[\\s-]+");
+        double total = 0;
+        double current = 0;
+        double sign = 1;
+        boolean sawNumber = false;
+        boolean pendingArticle = false;
+        
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (i == 0 && (token.equals("minus") || token.equals("negative"))) {
+                sign = -1;
+            } else if (NUMBER_WORDS.containsKey(token)) {
+                current += NUMBER_WORDS.get(token);
+                sawNumber = true;
+                pendingArticle = false;
+            } else if (token.equals("hundred")) {
+                current = (current == 0 ? 1 : current) * 100;
+                sawNumber = true;
+                pendingArticle = false;
+            } else if (SCALE_WORDS.containsKey(token)) {
+                total += (current == 0 ? 1 : current) * SCALE_WORDS.get(token);
+                current = 0;
+                sawNumber = true;
+                pendingArticle = false;
+            } else if (FRACTION_WORDS.containsKey(token)) {
+                double numerator = current == 0 ? 1 : current;
+                total += numerator / FRACTION_WORDS.get(token);
+                current = 0;
+                sawNumber = true;
+                pendingArticle = false;
+            } else if (token.equals("and")) {
+                total += current;
+                current = 0;
+            } else if (token.equals("a") || token.equals("an")) {
+                pendingArticle = true;
+            } else if (token.equals("point") && sawNumber) {
+                double fraction = 0;
+                double place = 0.1;
+                for (int j = i + 1; j < tokens.length; j++) {
+                    Long digit = NUMBER_WORDS.get(tokens[j]);
+                    if (digit == null || digit > 9) {
+                        return null;
+                    }
+                    fraction += digit * place;
+                    place /= 10;
+                }
+                return sign * (total + current + fraction);
+            } else {
+                return null;
+            }
+        }
+        if (!sawNumber || pendingArticle) {
+            return null;
+        }
+        return sign * (total + current);
+    }
+
+    /**
+     * Recursive-descent parser for arithmetic with + - * / ^, parentheses,
+     * implicit multiplication ("2x", "3(x+1)"), single-letter variables, pi,
+     * e and a few common functions.
+     */
+    private static final class ExpressionParser {
+
+        private static final Set<String> FUNCTIONS = Set.of("sqrt", "sin", "cos", "tan", "ln", "log", "abs", "exp");
+
+        private final String input;
+        private final Set<String> variables = new TreeSet<>();
+        private int position;
+
+        private ExpressionParser(String input) {
+            this.input = input;
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parse() {
+            ToDoubleFunction<Map<String, Double>> expression = parseSum();
+            skipSpaces();
+            if (position != input.length()) {
+                throw new IllegalArgumentException("Unexpected input at " + position);
+            }
+            return expression;
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parseSum() {
+            ToDoubleFunction<Map<String, Double>> left = parseProduct();
+            while (true) {
+                if (consume('+')) {
+                    ToDoubleFunction<Map<String, Double>> a = left;
+                    ToDoubleFunction<Map<String, Double>> b = parseProduct();
+                    left = bindings -> a.applyAsDouble(bindings) + b.applyAsDouble(bindings);
+                } else if (consume('-')) {
+                    ToDoubleFunction<Map<String, Double>> a = left;
+                    ToDoubleFunction<Map<String, Double>> b = parseProduct();
+                    left = bindings -> a.applyAsDouble(bindings) - b.applyAsDouble(bindings);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parseProduct() {
+            ToDoubleFunction<Map<String, Double>> left = parseUnary();
+            while (true) {
+                if (consume('*')) {
+                    left = multiply(left, parseUnary());
+                } else if (consume('/')) {
+                    ToDoubleFunction<Map<String, Double>> a = left;
+                    ToDoubleFunction<Map<String, Double>> b = parseUnary();
+                    left = bindings -> a.applyAsDouble(bindings) / b.applyAsDouble(bindings);
+                } else if (startsPrimary()) {
+                    left = multiply(left, parsePower());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parseUnary() {
+            if (consume('-')) {
+                ToDoubleFunction<Map<String, Double>> operand = parseUnary();
+                return bindings -> -operand.applyAsDouble(bindings);
+            }
+            if (consume('+')) {
+                return parseUnary();
+            }
+            return parsePower();
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parsePower() {
+            ToDoubleFunction<Map<String, Double>> base = parsePrimary();
+            if (consume('^')) {
+                ToDoubleFunction<Map<String, Double>> exponent = parseUnary();
+                return bindings -> Math.pow(base.applyAsDouble(bindings), exponent.applyAsDouble(bindings));
+            }
+            return base;
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parsePrimary() {
+            skipSpaces();
+            if (position >= input.length()) {
+                throw new IllegalArgumentException("Unexpected end of expression");
+            }
+            char c = input.charAt(position);
+            if (c == '(') {
+                position++;
+                ToDoubleFunction<Map<String, Double>> inner = parseSum();
+                if (!consume(')')) {
+                    throw new IllegalArgumentException("Missing )");
+                }
+                return inner;
+            }
+            if (c == '\u221a') {
+                position++;
+                ToDoubleFunction<Map<String, Double>> operand = parsePower();
+                return bindings -> Math.sqrt(operand.applyAsDouble(bindings));
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return parseNumber();
+            }
+            if (Character.isLetter(c)) {
+                return parseIdentifier();
+            }
+            throw new IllegalArgumentException("Unexpected character " + c);
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parseNumber() {
+            int start = position;
+            while (position < input.length() && (Character.isDigit(input.charAt(position)) || input.charAt(position) == '.')) {
+                position++;
+            }
+            // Scientific notation only when digits follow, so "2e" stays 2 * e
+            if (position + 1 < input.length() && input.charAt(position) == 'e') {
+                int exponentStart = position + 1;
+                if (input.charAt(exponentStart) == '+' || input.charAt(exponentStart) == '-') {
+                    exponentStart++;
+                }
+                if (exponentStart < input.length() && Character.isDigit(input.charAt(exponentStart))) {
+                    position = exponentStart;
+                    while (position < input.length() && Character.isDigit(input.charAt(position))) {
+                        position++;
+                    }
+                }
+            }
+            try {
+                double value = Double.parseDouble(input.substring(start, position));
+                return bindings -> value;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad number", e);
+            }
+        }
+
+        private ToDoubleFunction<Map<String, Double>> parseIdentifier() {
+            int start = position;
+            while (position < input.length() && Character.isLetter(input.charAt(position))) {
+                position++;
+            }
+            String name = input.substring(start, position);
+            if (FUNCTIONS.contains(name)) {
+                ToDoubleFunction<Map<String, Double>> argument = parsePower();
+                return switch (name) {
+                    case "sqrt" -> bindings -> Math.sqrt(argument.applyAsDouble(bindings));
+                    case "sin" -> bindings -> Math.sin(argument.applyAsDouble(bindings));
+                    case "cos" -> bindings -> Math.cos(argument.applyAsDouble(bindings));
+                    case "tan" -> bindings -> Math.tan(argument.applyAsDouble(bindings));
+                    case "ln" -> bindings -> Math.log(argument.applyAsDouble(bindings));
+                    case "log" -> bindings -> Math.log10(argument.applyAsDouble(bindings));
+                    case "abs" -> bindings -> Math.abs(argument.applyAsDouble(bindings));
+                    default -> bindings -> Math.exp(argument.applyAsDouble(bindings));
+                };
+            }
+            if (name.equals("pi")) {
+                return bindings -> Math.PI;
+            }
+            if (name.equals("e")) {
+                return bindings -> Math.E;
+            }
+            // Runs of letters are products of variables only when written onto a coefficient
+            // ("2xy", "(a+b)cd"); a free-standing word ("in 1945") is not algebra
+            if (name.length() > 1 && (name.length() > 3 || start == 0
+                    || !(Character.isDigit(input.charAt(start - 1)) || input.charAt(start - 1) == ')'))) {
+                throw new IllegalArgumentException("Unknown word " + name);
+            }
+            List<ToDoubleFunction<Map<String, Double>>> factors = new ArrayList<>();
+            for (char letter : name.toCharArray()) {
+                String variable = String.valueOf(letter);
+                variables.add(variable);
+                factors.add(bindings -> bindings.getOrDefault(variable, Double.NaN));
+            }
+            ToDoubleFunction<Map<String, Double>> product = factors.get(0);
+            for (int i = 1; i < factors.size(); i++) {
+                product = multiply(product, factors.get(i));
+            }
+            return product;
+        }
+
+        private static ToDoubleFunction<Map<String, Double>> multiply(ToDoubleFunction<Map<String, Double>> a,
+                                                                      ToDoubleFunction<Map<String, Double>> b) {
+            return bindings -> a.applyAsDouble(bindings) * b.applyAsDouble(bindings);
+        }
+
+        private boolean startsPrimary() {
+            skipSpaces();
+            if (position >= input.length()) {
+                return false;
+            }
+            char c = input.charAt(position);
+            return c == '(' || c == '\u221a' || Character.isLetterOrDigit(c) || c == '.';
+        }
+
+        private boolean consume(char expected) {
+            skipSpaces();
+            if (position < input.length() && input.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.examino.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Numeric and math questions, decided by NumericAnswerEvaluator. Answers it
+ * cannot read as a quantity are escalated to the AI grader.
+ */
+@Component
+@RequiredArgsConstructor
+public class NumericQuestionGrader implements QuestionGrader {
+
+    private final NumericAnswerEvaluator numericAnswerEvaluator;
+
+    @Override
+    public Set<String> getTypes() {
+        return Set.of("NUMERIC", "NUMBER", "MATH", "CALCULATION");
+    }
+
+    @Override
+    public AiGradingService.GradingResult grade(String questionText, String expectedAnswer, String studentAnswer, int totalMarks) {
+        return numericAnswerEvaluator.evaluate(expectedAnswer, studentAnswer, totalMarks);
+    }
+}
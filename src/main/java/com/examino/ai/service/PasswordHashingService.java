@@ -0,0 +1,178 @@
+package com.examino.ai.service;
+
+import com.examino.ai.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PBKDF2 password hashing on a dedicated, bounded pool so a login storm
+ * queues here (and is shed when the queue is full) instead of occupying
+ * every Tomcat thread. Stored format: pbkdf2$iterations$salt$hash.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadPoolExecutor executor;
+    private final int iterations;
+    private final long waitTimeoutMs;
+
+    private final LongAdder hashed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+    public PasswordHashingService(@Value("${auth.password.iterations:210000}") int iterations,
+                                  @Value("${auth.password.threads:0}") int threads,
+                                  @Value("${auth.password.queue-capacity:200}") int queueCapacity,
+                                  @Value("${auth.password.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.iterations = iterations;
+        this.waitTimeoutMs = waitTimeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing pool: {} threads, queue {}, {} PBKDF2 iterations", poolSize, queueCapacity, iterations);
+    }
+
+    public String hash(String rawPassword) {
+        return submit(() -> {
+            byte[] salt = new byte[SALT_BYTES];
+            random.nextBytes(salt);
+            byte[] hash = pbkdf2(rawPassword, salt, iterations);
+            return PREFIX + iterations + "$" + Base64.getEncoder().encodeToString(salt)
+                    + "$" + Base64.getEncoder().encodeToString(hash);
+        });
+    }
+
+    /**
+     * Verifies against a PBKDF2 hash, or against a legacy plaintext value
+     * (which the caller should then upgrade, see {@link #needsRehash}).
+     */
+    public boolean verify(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (!storedPassword.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        String[] parts = storedPassword.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        int storedIterations = Integer.parseInt(parts[1]);
+        byte[] salt = Base64.getDecoder().decode(parts[2]);
+        byte[] expected = Base64.getDecoder().decode(parts[3]);
+        return submit(() -> MessageDigest.isEqual(pbkdf2(rawPassword, salt, storedIterations), expected));
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        if (storedPassword == null || !storedPassword.startsWith(PREFIX)) {
+            return true;
+        }
+        String[] parts = storedPassword.split("\\$");
+        return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+    }
+
+    public Map<String, Object> getStatistics() {
+        long count = hashed.sum();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("iterations", iterations);
+        statistics.put("poolSize", executor.getMaximumPoolSize());
+        statistics.put("activeThreads", executor.getActiveCount());
+        statistics.put("queueDepth", executor.getQueue().size());
+        statistics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        statistics.put("hashed", count);
+        statistics.put("rejected", rejected.sum());
+        statistics.put("averageHashMs", count > 0 ? hashNanos.sum() / 1_000_000.0 / count : 0.0);
+        statistics.put("maxHashMs", maxHashNanos.get() / 1_000_000.0);
+        statistics.put("averageQueueWaitMs", count > 0 ? queueWaitNanos.sum() / 1_000_000.0 / count : 0.0);
+        statistics.put("maxQueueWaitMs", maxQueueWaitNanos.get() / 1_000_000.0);
+        return statistics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long finishedAt = System.nanoTime();
+                    record(startedAt - enqueuedAt, finishedAt - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many concurrent logins, please retry shortly", 1);
+        }
+        
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceBusyException("Login is taking too long, please retry shortly", 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void record(long waitNanos, long workNanos) {
+        hashed.increment();
+        hashNanos.add(workNanos);
+        queueWaitNanos.add(waitNanos);
+        maxHashNanos.accumulateAndGet(workNanos, Math::max);
+        maxQueueWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private byte[] pbkdf2(String rawPassword, byte[] salt, int rounds) throws Exception {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, rounds, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
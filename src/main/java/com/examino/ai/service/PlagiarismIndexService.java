@@ -0,0 +1,308 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.Exam;
+import com.examino.ai.model.ExamAttempt;
+import com.examino.ai.model.ExamResult;
+import com.examino.ai.model.Question;
+import com.examino.ai.repository.ExamAttemptRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Incremental near-duplicate index over the answers submitted for each exam.
+ * Every graded answer is MinHash-signed and added to the LSH bands of its
+ * question; only answers sharing a band are compared, so indexing a
+ * submission costs a handful of bucket lookups instead of a pass over the
+ * whole cohort. Pairs of submissions with near-identical answers are kept as
+ * evidence for the teacher's report.
+ *
+ * The index lives in memory. Submissions made through timed attempts are
+ * re-indexed from their saved answers when an exam's report is requested
+ * after a restart or eviction.
+ */
+@Service
+@Slf4j
+public class PlagiarismIndexService {
+
+    private record Entry(String resultId, String studentId, MinHasher.Sketch sketch, boolean matchesReference) {
+    }
+
+    private static final class QuestionIndex {
+        private final Map<Long, List<Entry>> buckets = new HashMap<>();
+        private MinHasher.Sketch reference;
+    }
+
+    private static final class FlaggedPair {
+        private final String firstResultId;
+        private final String firstStudentId;
+        private final String secondResultId;
+        private final String secondStudentId;
+        private final Map<String, Double> similarityByQuestion = new TreeMap<>();
+
+        private FlaggedPair(Entry first, Entry second) {
+            this.firstResultId = first.resultId();
+            this.firstStudentId = first.studentId();
+            this.secondResultId = second.resultId();
+            this.secondStudentId = second.studentId();
+        }
+
+        private double averageSimilarity() {
+            return similarityByQuestion.values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        }
+    }
+
+    private static final class ExamIndex {
+        private final Map<String, QuestionIndex> questions = new HashMap<>();
+        private final Map<String, FlaggedPair> pairs = new HashMap<>();
+        private final Set<String> indexedResults = new HashSet<>();
+        private boolean restored;
+    }
+
+    private final ExamAttemptRepository examAttemptRepository;
+    private final MinHasher minHasher;
+    private final Cache<String, ExamIndex> indexes;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int minAnswerChars;
+    private final int bands;
+    private final int maxBucketSize;
+
+    private final LongAdder answersIndexed = new LongAdder();
+    private final LongAdder candidatesCompared = new LongAdder();
+    private final LongAdder bucketOverflows = new LongAdder();
+    private final LongAdder indexingNanos = new LongAdder();
+
+    public PlagiarismIndexService(ExamAttemptRepository examAttemptRepository,
+                                  @Value("${plagiarism.enabled:true}") boolean enabled,
+                                  @Value("${plagiarism.similarity-threshold:0.7}") double similarityThreshold,
+                                  @Value("${plagiarism.min-answer-chars:40}") int minAnswerChars,
+                                  @Value("${plagiarism.num-hashes:64}") int numHashes,
+                                  @Value("${plagiarism.bands:16}") int bands,
+                                  @Value("${plagiarism.shingle-size:5}") int shingleSize,
+                                  @Value("${plagiarism.max-bucket-size:200}") int maxBucketSize,
+                                  @Value("${plagiarism.index.max-exams:500}") long maxExams,
+                                  @Value("${plagiarism.index.expire-hours:168}") long expireHours) {
+        this.examAttemptRepository = examAttemptRepository;
+        this.minHasher = new MinHasher(numHashes, shingleSize, 0xC0FFEEL);
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.minAnswerChars = minAnswerChars;
+        this.bands = bands;
+        this.maxBucketSize = maxBucketSize;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxExams)
+                .expireAfterAccess(Duration.ofHours(expireHours))
+                .build();
+    }
+
+    /**
+     * Adds the answers of a newly saved result. Inside a transaction the
+     * result is indexed only once it commits, so rolled-back results never
+     * show up in reports.
+     */
+    public void indexResult(ExamResult result) {
+        if (!enabled || result.getQuestionResults() == null || result.getQuestionResults().isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexNow(result);
+                }
+            });
+        } else {
+            indexNow(result);
+        }
+    }
+
+    public void removeResult(String examId, String resultId) {
+        ExamIndex index = indexes.getIfPresent(examId);
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            if (!index.indexedResults.remove(resultId)) {
+                return;
+            }
+            for (QuestionIndex questionIndex : index.questions.values()) {
+                questionIndex.buckets.values().forEach(bucket -> bucket.removeIf(entry -> entry.resultId().equals(resultId)));
+                questionIndex.buckets.values().removeIf(List::isEmpty);
+            }
+            index.pairs.values().removeIf(pair -> pair.firstResultId.equals(resultId) || pair.secondResultId.equals(resultId));
+        }
+    }
+
+    public void removeExam(String examId) {
+        indexes.invalidate(examId);
+    }
+
+    /**
+     * Pairs of submissions whose answers to at least minMatchedQuestions
+     * questions are near-identical, most matched questions first.
+     */
+    public Map<String, Object> getReport(Exam exam, int minMatchedQuestions, int limit) {
+        ExamIndex index = indexes.get(exam.getExamId(), key -> new ExamIndex());
+        List<Map<String, Object>> flagged = new ArrayList<>();
+        int indexedSubmissions;
+        synchronized (index) {
+            if (!index.restored) {
+                restoreFromAttempts(exam, index);
+                index.restored = true;
+            }
+            indexedSubmissions = index.indexedResults.size();
+            index.pairs.values().stream()
+                    .filter(pair -> pair.similarityByQuestion.size() >= Math.max(1, minMatchedQuestions))
+                    .sorted(Comparator.comparingInt((FlaggedPair pair) -> pair.similarityByQuestion.size())
+                            .thenComparingDouble(FlaggedPair::averageSimilarity)
+                            .reversed())
+                    .limit(limit)
+                    .forEach(pair -> {
+                        Map<String, Object> entry = new LinkedHashMap<>();
+                        entry.put("firstResultId", pair.firstResultId);
+                        entry.put("firstStudentId", pair.firstStudentId);
+                        entry.put("secondResultId", pair.secondResultId);
+                        entry.put("secondStudentId", pair.secondStudentId);
+                        entry.put("matchedQuestions", pair.similarityByQuestion.size());
+                        entry.put("averageSimilarity", round(pair.averageSimilarity()));
+                        entry.put("maxSimilarity", round(pair.similarityByQuestion.values().stream()
+                                .mapToDouble(Double::doubleValue).max().orElse(0)));
+                        Map<String, Double> byQuestion = new LinkedHashMap<>();
+                        pair.similarityByQuestion.forEach((questionId, similarity) -> byQuestion.put(questionId, round(similarity)));
+                        entry.put("similarityByQuestion", byQuestion);
+                        flagged.add(entry);
+                    });
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("examId", exam.getExamId());
+        report.put("indexedSubmissions", indexedSubmissions);
+        report.put("similarityThreshold", similarityThreshold);
+        report.put("flaggedPairs", flagged);
+        return report;
+    }
+
+    public Map<String, Object> getStatistics() {
+        long indexed = answersIndexed.sum();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("examsIndexed", indexes.estimatedSize());
+        statistics.put("answersIndexed", indexed);
+        statistics.put("candidatesCompared", candidatesCompared.sum());
+        statistics.put("comparisonsPerAnswer", indexed == 0 ? 0.0 : (double) candidatesCompared.sum() / indexed);
+        statistics.put("bucketOverflows", bucketOverflows.sum());
+        statistics.put("indexingMicrosPerAnswer", indexed == 0 ? 0.0 : indexingNanos.sum() / 1000.0 / indexed);
+        return statistics;
+    }
+
+    private void indexNow(ExamResult result) {
+        ExamIndex index = indexes.get(result.getExamId(), key -> new ExamIndex());
+        Map<String, String> answers = new HashMap<>();
+        Map<String, String> references = new HashMap<>();
+        result.getQuestionResults().forEach((questionId, questionResult) -> {
+            answers.put(questionId, questionResult.getStudentAnswer());
+            references.put(questionId, questionResult.getCorrectAnswer());
+        });
+        synchronized (index) {
+            addSubmission(index, result.getResultId(), result.getStudentId(), answers, references);
+        }
+    }
+
+    private void restoreFromAttempts(Exam exam, ExamIndex index) {
+        Map<String, String> references = new HashMap<>();
+        if (exam.getQuestions() != null) {
+            for (Question question : exam.getQuestions()) {
+                references.put(question.getQuestionId(), question.getExpectedAnswer());
+            }
+        }
+        int restored = 0;
+        for (ExamAttempt attempt : examAttemptRepository.findByExamIdAndResultIdIsNotNull(exam.getExamId())) {
+            if (!index.indexedResults.contains(attempt.getResultId())) {
+                addSubmission(index, attempt.getResultId(), attempt.getStudentId(), attempt.getAnswers(), references);
+                restored++;
+            }
+        }
+        if (restored > 0) {
+            log.info("Restored {} submissions into the similarity index for exam {}", restored, exam.getExamId());
+        }
+    }
+
+    private void addSubmission(ExamIndex index, String resultId, String studentId,
+                               Map<String, String> answers, Map<String, String> references) {
+        if (!index.indexedResults.add(resultId)) {
+            return;
+        }
+        long start = System.nanoTime();
+        int indexed = 0;
+        for (Map.Entry<String, String> answer : answers.entrySet()) {
+            String normalized = MinHasher.normalize(answer.getValue());
+            // Short answers ("Paris", "4") collide by design and say nothing about copying
+            if (normalized.length() < minAnswerChars) {
+                continue;
+            }
+            QuestionIndex questionIndex = index.questions.computeIfAbsent(answer.getKey(), key -> new QuestionIndex());
+            if (questionIndex.reference == null && references.get(answer.getKey()) != null) {
+                questionIndex.reference = minHasher.sketch(MinHasher.normalize(references.get(answer.getKey())));
+            }
+            MinHasher.Sketch sketch = minHasher.sketch(normalized);
+            boolean matchesReference = questionIndex.reference != null
+                    && MinHasher.jaccard(sketch, questionIndex.reference) >= similarityThreshold;
+            Entry entry = new Entry(resultId, studentId, sketch, matchesReference);
+            
+            long[] keys = minHasher.bandKeys(sketch, bands);
+            Set<String> compared = new HashSet<>();
+            for (long key : keys) {
+                List<Entry> bucket = questionIndex.buckets.computeIfAbsent(key, k -> new ArrayList<>(2));
+                for (Entry candidate : bucket) {
+                    if (candidate.studentId().equals(studentId) || !compared.add(candidate.resultId())) {
+                        continue;
+                    }
+                    candidatesCompared.increment();
+                    // Two students who both reproduced the model answer are not evidence of copying
+                    if (matchesReference && candidate.matchesReference()) {
+                        continue;
+                    }
+                    double similarity = MinHasher.jaccard(sketch, candidate.sketch());
+                    if (similarity >= similarityThreshold) {
+                        flag(index, candidate, entry, answer.getKey(), similarity);
+                    }
+                }
+                // A full bucket is a phrasing the whole class shares; further copies add no signal
+                if (bucket.size() < maxBucketSize) {
+                    bucket.add(entry);
+                } else {
+                    bucketOverflows.increment();
+                }
+            }
+            indexed++;
+        }
+        answersIndexed.add(indexed);
+        indexingNanos.add(System.nanoTime() - start);
+    }
+
+    private static void flag(ExamIndex index, Entry earlier, Entry later, String questionId, double similarity) {
+        String key = earlier.resultId() + "|" + later.resultId();
+        index.pairs.computeIfAbsent(key, k -> new FlaggedPair(earlier, later))
+                .similarityByQuestion.put(questionId, similarity);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,79 @@
+package com.examino.ai.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prompt text with ${name} placeholders, split once into literal segments
+ * and slots so rendering is a single pass of appends into a reused buffer.
+ * Arguments are passed in the order the placeholders first appear.
+ */
+public final class PromptTemplate {
+
+    private static final int RENDER_BUFFER_LIMIT = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> RENDER_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final String[] literals;
+    private final int[] slots;
+    private final int slotCount;
+    private final int literalLength;
+
+    private PromptTemplate(String[] literals, int[] slots, int slotCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.slotCount = slotCount;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static PromptTemplate compile(String template) {
+        Map<String, Integer> slotIndexes = new LinkedHashMap<>();
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = template.indexOf("${", position);
+            if (start < 0) {
+                break;
+            }
+            int end = template.indexOf('}', start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder at offset " + start);
+            }
+            String name = template.substring(start + 2, end).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + start);
+            }
+            literals.add(template.substring(position, start));
+            slots.add(slotIndexes.computeIfAbsent(name, key -> slotIndexes.size()));
+            position = end + 1;
+        }
+        literals.add(template.substring(position));
+        return new PromptTemplate(literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(), slotIndexes.size());
+    }
+
+    public String render(Object... args) {
+        if (args.length != slotCount) {
+            throw new IllegalArgumentException("Template expects " + slotCount + " arguments, got " + args.length);
+        }
+        StringBuilder buffer = RENDER_BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(literalLength + 1024);
+        for (int i = 0; i < slots.length; i++) {
+            buffer.append(literals[i]).append(args[slots[i]]);
+        }
+        buffer.append(literals[slots.length]);
+        String rendered = buffer.toString();
+        // A one-off huge prompt should not pin its buffer to the thread forever
+        if (buffer.capacity() > RENDER_BUFFER_LIMIT) {
+            RENDER_BUFFER.remove();
+        }
+        return rendered;
+    }
+}
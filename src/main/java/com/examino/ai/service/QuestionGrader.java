@@ -0,0 +1,22 @@
+package com.examino.ai.service;
+
+import java.util.Set;
+
+/**
+ * Local grader for one family of question types. Registered with
+ * QuestionGradingService by the types it declares.
+ */
+public interface QuestionGrader {
+
+    /**
+     * Normalized question types handled by this grader (see
+     * {@link QuestionGradingService#normalizeType}).
+     */
+    Set<String> getTypes();
+
+    /**
+     * Grades a non-blank answer, or returns null when the grader cannot give a
+     * confident verdict and the answer should go to the AI grader instead.
+     */
+    AiGradingService.GradingResult grade(String questionText, String expectedAnswer, String studentAnswer, int totalMarks);
+}
@@ -0,0 +1,149 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.Exam;
+import com.examino.ai.model.Question;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Routes each question to the local grader registered for its type and only
+ * falls back to the AI grader for open-ended types, or when a local grader
+ * cannot reach a confident verdict. Short-answer types the local grader
+ * cannot decide get a second local chance from the n-gram vector scorer.
+ */
+@Service
+@Slf4j
+public class QuestionGradingService {
+
+    private static final String UNTYPED = "UNTYPED";
+
+    private final AiGradingService aiGradingService;
+    private final VectorAnswerScorer vectorAnswerScorer;
+    private final Set<String> vectorTypes;
+    private final Map<String, QuestionGrader> graders = new HashMap<>();
+    private final Map<String, TypeCounters> counters = new ConcurrentHashMap<>();
+
+    private static final class TypeCounters {
+        private final LongAdder local = new LongAdder();
+        private final LongAdder vector = new LongAdder();
+        private final LongAdder escalated = new LongAdder();
+        private final LongAdder ai = new LongAdder();
+        private final LongAdder localNanos = new LongAdder();
+    }
+
+    public QuestionGradingService(AiGradingService aiGradingService, List<QuestionGrader> questionGraders,
+                                  VectorAnswerScorer vectorAnswerScorer,
+                                  @Value("${grading.vector.types:SHORT_ANSWER,SHORT,FILL_IN_THE_BLANK,FILL_IN}") String vectorTypes) {
+        this.aiGradingService = aiGradingService;
+        this.vectorAnswerScorer = vectorAnswerScorer;
+        this.vectorTypes = Arrays.stream(vectorTypes.split(","))
+                .filter(type -> !type.isBlank())
+                .map(QuestionGradingService::normalizeType)
+                .collect(Collectors.toUnmodifiableSet());
+        for (QuestionGrader grader : questionGraders) {
+            for (String type : grader.getTypes()) {
+                QuestionGrader previous = graders.put(type, grader);
+                if (previous != null) {
+                    throw new IllegalStateException("Question type " + type + " registered by both "
+                            + previous.getClass().getSimpleName() + " and " + grader.getClass().getSimpleName());
+                }
+            }
+        }
+        log.info("Local graders registered for question types: {}", graders.keySet());
+    }
+
+    public AiGradingService.GradingResult grade(Question question, String studentAnswer) {
+        AiGradingService.GradingResult result = gradeLocally(question, studentAnswer);
+        return result != null ? result : gradeWithAi(question, studentAnswer);
+    }
+
+    /** Lets the vector scorer weight terms by how common they are within this exam. */
+    public void registerExam(Exam exam) {
+        vectorAnswerScorer.registerExam(exam);
+    }
+
+    /**
+     * Runs only the local graders for the question's type; null when there
+     * are none or they could not reach a confident verdict.
+     */
+    public AiGradingService.GradingResult gradeLocally(Question question, String studentAnswer) {
+        String type = normalizeType(question.getType());
+        int totalMarks = question.getMarks() == null ? 0 : question.getMarks();
+        QuestionGrader grader = graders.get(type);
+        boolean vectorEligible = vectorTypes.contains(type);
+        if ((grader == null && !vectorEligible) || !isGradable(question, studentAnswer, totalMarks)) {
+            return null;
+        }
+        
+        TypeCounters typeCounters = counters.computeIfAbsent(type, key -> new TypeCounters());
+        long start = System.nanoTime();
+        AiGradingService.GradingResult result = grader == null ? null : grader.grade(
+                question.getQuestionText(), question.getExpectedAnswer(), studentAnswer, totalMarks);
+        if (result != null) {
+            typeCounters.local.increment();
+        } else if (vectorEligible && (result = vectorAnswerScorer.gradeIfConfident(
+                question.getQuestionId(), question.getExpectedAnswer(), studentAnswer, totalMarks)) != null) {
+            typeCounters.vector.increment();
+        } else {
+            typeCounters.escalated.increment();
+        }
+        typeCounters.localNanos.add(System.nanoTime() - start);
+        return result;
+    }
+
+    public AiGradingService.GradingResult gradeWithAi(Question question, String studentAnswer) {
+        String type = normalizeType(question.getType());
+        int totalMarks = question.getMarks() == null ? 0 : question.getMarks();
+        // Reaching the AI with a gradable answer for a locally graded type means the local graders gave up
+        boolean escalated = (graders.containsKey(type) || vectorTypes.contains(type))
+                && isGradable(question, studentAnswer, totalMarks);
+        
+        counters.computeIfAbsent(type, key -> new TypeCounters()).ai.increment();
+        return aiGradingService.gradeAnswer(question.getQuestionText(), question.getExpectedAnswer(),
+                studentAnswer, totalMarks, type, escalated);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> byType = new HashMap<>();
+        counters.forEach((type, typeCounters) -> {
+            long attempted = typeCounters.local.sum() + typeCounters.vector.sum() + typeCounters.escalated.sum();
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("gradedLocally", typeCounters.local.sum());
+            entry.put("gradedByVectorScorer", typeCounters.vector.sum());
+            entry.put("escalatedToAi", typeCounters.escalated.sum());
+            entry.put("gradedByAi", typeCounters.ai.sum());
+            entry.put("averageLocalMicros", attempted == 0 ? 0.0 : typeCounters.localNanos.sum() / 1000.0 / attempted);
+            byType.put(type, entry);
+        });
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("registeredTypes", graders.keySet());
+        statistics.put("vectorScorerTypes", vectorTypes);
+        statistics.put("byType", byType);
+        return statistics;
+    }
+
+    public static String normalizeType(String type) {
+        if (type == null || type.isBlank()) {
+            return UNTYPED;
+        }
+        return type.trim().toUpperCase(Locale.ROOT).replaceAll("[\\s/-]+", "_");
+    }
+
+    // Degenerate inputs keep the AI grader's existing validation messages
+    private static boolean isGradable(Question question, String studentAnswer, int totalMarks) {
+        return question.getExpectedAnswer() != null && !question.getExpectedAnswer().isBlank()
+                && studentAnswer != null && !studentAnswer.isBlank()
+                && totalMarks > 0;
+    }
+}
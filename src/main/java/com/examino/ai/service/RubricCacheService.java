@@ -0,0 +1,162 @@
+package com.examino.ai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses, validates and normalizes grading rubrics once and keeps the
+ * compiled form, including the rubric's fixed prompt prefix, under a stable
+ * id derived from the normalized content. A class sends the same rubric with
+ * every sheet, so only the first sheet pays for parsing and prompt building.
+ * Compiled rubrics live in one bounded LRU store; ids are therefore only
+ * valid while the rubric is cached, and callers holding an expired id must
+ * send the rubric itself again.
+ */
+@Service
+@Slf4j
+public class RubricCacheService {
+
+    /**
+     * rubricId is the first 16 hex digits of the SHA-256 of the normalized
+     * rubric JSON (object keys sorted, whitespace removed), so formatting
+     * differences map to the same id.
+     */
+    public record CompiledRubric(String rubricId, String normalizedJson, int criteriaCount,
+                                 BedrockMessagesCodec.PromptPrefix promptPrefix) {
+    }
+
+    private final BedrockService bedrockService;
+    private final int maxRubricChars;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper canonicalMapper = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    // Raw request text -> rubric id, so repeats skip hashing and parsing; the rubric itself is only in byId
+    private final Cache<String, String> idsByRawText;
+    private final Cache<String, CompiledRubric> byId;
+    private final LongAdder compiled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RubricCacheService(BedrockService bedrockService,
+                              @Value("${rubric.cache.max-entries:1000}") long maxEntries,
+                              @Value("${rubric.max-chars:65536}") int maxRubricChars) {
+        this.bedrockService = bedrockService;
+        this.maxRubricChars = maxRubricChars;
+        this.idsByRawText = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        this.byId = Caffeine.newBuilder().maximumSize(maxEntries).build();
+    }
+
+    /**
+     * Returns the compiled rubric for this JSON, compiling it on first use.
+     * Throws IllegalArgumentException when the rubric is not usable.
+     */
+    public CompiledRubric compile(String rubricJson) {
+        if (rubricJson == null || rubricJson.isBlank()) {
+            rejected.increment();
+            throw new IllegalArgumentException("Rubric is required");
+        }
+        if (rubricJson.length() > maxRubricChars) {
+            rejected.increment();
+            throw new IllegalArgumentException("Rubric exceeds " + maxRubricChars + " characters");
+        }
+        String rubricId = idsByRawText.getIfPresent(rubricJson);
+        CompiledRubric rubric = rubricId == null ? null : byId.getIfPresent(rubricId);
+        if (rubric != null) {
+            hits.increment();
+            return rubric;
+        }
+        misses.increment();
+        rubric = parse(rubricJson);
+        idsByRawText.put(rubricJson, rubric.rubricId());
+        return rubric;
+    }
+
+    /**
+     * Returns the cached rubric for an id from compile(). Throws
+     * IllegalArgumentException when the id is unknown or has been evicted.
+     */
+    public CompiledRubric get(String rubricId) {
+        CompiledRubric rubric = rubricId == null ? null : byId.getIfPresent(rubricId);
+        if (rubric == null) {
+            throw new IllegalArgumentException("Unknown or expired rubric id: " + rubricId);
+        }
+        return rubric;
+    }
+
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return Map.of(
+            "rubrics", byId.estimatedSize(),
+            "compiled", compiled.sum(),
+            "rejected", rejected.sum(),
+            "hits", hitCount,
+            "misses", misses.sum(),
+            "hitRatio", lookups == 0 ? 0.0 : Math.round(hitCount * 10000.0 / lookups) / 100.0
+        );
+    }
+
+    private CompiledRubric parse(String rubricJson) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(rubricJson);
+        } catch (JsonProcessingException e) {
+            rejected.increment();
+            throw new IllegalArgumentException("Rubric is not valid JSON: " + e.getOriginalMessage());
+        }
+        if (root == null || !(root.isObject() || root.isArray()) || root.isEmpty()) {
+            rejected.increment();
+            throw new IllegalArgumentException("Rubric must be a non-empty JSON object or array");
+        }
+        
+        String normalized;
+        try {
+            normalized = canonicalMapper.writeValueAsString(objectMapper.treeToValue(root, Object.class));
+        } catch (JsonProcessingException e) {
+            rejected.increment();
+            throw new IllegalArgumentException("Rubric could not be normalized: " + e.getOriginalMessage());
+        }
+        String rubricId = HexFormat.of().formatHex(sha256(normalized), 0, 8);
+        
+        // Identical content sent with different formatting shares one compiled entry
+        return byId.get(rubricId, id -> {
+            compiled.increment();
+            log.info("Compiled rubric {} ({} criteria, {} chars)", id, countCriteria(root), normalized.length());
+            return new CompiledRubric(id, normalized, countCriteria(root), bedrockService.buildRubricPrefix(normalized));
+        });
+    }
+
+    private static int countCriteria(JsonNode root) {
+        if (root.isArray()) {
+            return root.size();
+        }
+        for (String field : new String[]{"criteria", "questions", "items"}) {
+            if (root.path(field).isArray() || root.path(field).isObject()) {
+                return root.path(field).size();
+            }
+        }
+        return root.size();
+    }
+
+    private static byte[] sha256(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
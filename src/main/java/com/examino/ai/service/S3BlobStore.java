@@ -0,0 +1,89 @@
+package com.examino.ai.service;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Blobs stored as S3 objects under {prefix}/ab/cd/abcd... Reads are
+ * expected to go through a TieredBlobStore so hot blobs are served locally.
+ */
+public class S3BlobStore implements BlobStore {
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String prefix;
+
+    public S3BlobStore(S3Client s3Client, String bucketName, String prefix) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String getName() {
+        return "s3";
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(objectKey(hash)).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void write(String hash, Path source) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(objectKey(hash))
+                .build();
+        s3Client.putObject(request, RequestBody.fromFile(source));
+    }
+
+    @Override
+    public void copyTo(String hash, Path target) {
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucketName).key(objectKey(hash)).build();
+        s3Client.getObject(request, ResponseTransformer.toFile(target));
+    }
+
+    @Override
+    public Path getLocalPath(String hash) {
+        return null;
+    }
+
+    @Override
+    public void delete(String hash) {
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(objectKey(hash)).build());
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("backend", getName());
+        statistics.put("bucket", bucketName);
+        return statistics;
+    }
+
+    private String objectKey(String hash) {
+        return prefix + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+}
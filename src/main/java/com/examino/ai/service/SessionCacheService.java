@@ -0,0 +1,94 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.UserSession;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-process cache of validated sessions. Positive entries live until the
+ * session's own expiresAt; unknown ids are remembered briefly so repeated
+ * lookups of a bad token do not reach MySQL either.
+ */
+@Service
+public class SessionCacheService {
+
+    private final Cache<String, CachedSession> sessions;
+    private final long negativeTtlNanos;
+
+    public SessionCacheService(@Value("${auth.session-cache.max-entries:50000}") long maxEntries,
+                               @Value("${auth.session-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new SessionExpiry())
+                .recordStats()
+                .build();
+    }
+
+    public UserSession get(String sessionId, Function<String, UserSession> loader) {
+        CachedSession cached = sessions.get(sessionId, id -> new CachedSession(loader.apply(id)));
+        UserSession session = cached.session;
+        if (session != null && !session.getExpiresAt().isAfter(Instant.now())) {
+            sessions.invalidate(sessionId);
+            return null;
+        }
+        return session;
+    }
+
+    public void put(UserSession session) {
+        sessions.put(session.getSessionId(), new CachedSession(session));
+    }
+
+    public void invalidate(String sessionId) {
+        sessions.invalidate(sessionId);
+    }
+
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = sessions.stats();
+        return Map.of(
+            "entries", sessions.estimatedSize(),
+            "hits", stats.hitCount(),
+            "misses", stats.missCount(),
+            "evictions", stats.evictionCount(),
+            "hitRatio", Math.round(stats.hitRate() * 10000.0) / 100.0
+        );
+    }
+
+    private static class CachedSession {
+        private final UserSession session; // null marks an unknown or inactive id
+
+        CachedSession(UserSession session) {
+            this.session = session;
+        }
+    }
+
+    private class SessionExpiry implements Expiry<String, CachedSession> {
+        @Override
+        public long expireAfterCreate(String key, CachedSession value, long currentTime) {
+            if (value.session == null) {
+                return negativeTtlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), value.session.getExpiresAt()).toNanos();
+            return Math.max(0, remaining);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedSession value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedSession value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
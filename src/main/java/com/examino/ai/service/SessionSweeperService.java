@@ -0,0 +1,89 @@
+package com.examino.ai.service;
+
+import com.examino.ai.repository.UserSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Periodically purges expired and logged-out rows from user_sessions in
+ * small chunks, pausing between chunks so concurrent logins are not blocked.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessionSweeperService {
+
+    private final UserSessionRepository sessionRepository;
+
+    @Value("${auth.session-sweeper.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${auth.session-sweeper.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${auth.session-sweeper.chunk-pause-ms:20}")
+    private long chunkPauseMs;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalPurged = new AtomicLong();
+    private final AtomicLong lastPurged = new AtomicLong();
+    private final AtomicLong lastDurationMs = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${auth.session-sweeper.interval-ms:600000}",
+               initialDelayString = "${auth.session-sweeper.initial-delay-ms:60000}")
+    public void sweep() {
+        long start = System.currentTimeMillis();
+        Instant now = Instant.now();
+        long purged = 0;
+        
+        try {
+            // Expired and logged-out rows are purged by separate statements, sharing the chunk budget
+            int chunks = 0;
+            for (IntSupplier delete : List.<IntSupplier>of(
+                    () -> sessionRepository.deleteExpired(now, chunkSize),
+                    () -> sessionRepository.deleteInactive(chunkSize))) {
+                while (chunks < maxChunksPerRun) {
+                    int deleted = delete.getAsInt();
+                    chunks++;
+                    purged += deleted;
+                    if (deleted < chunkSize) {
+                        break;
+                    }
+                    Thread.sleep(chunkPauseMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Session sweep failed after purging {} rows: {}", purged, e.getMessage());
+        }
+        
+        long duration = System.currentTimeMillis() - start;
+        runs.incrementAndGet();
+        totalPurged.addAndGet(purged);
+        lastPurged.set(purged);
+        lastDurationMs.set(duration);
+        if (purged > 0) {
+            log.info("Session sweep purged {} rows in {}ms", purged, duration);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("sweeperRuns", runs.get());
+        statistics.put("sweeperTotalPurged", totalPurged.get());
+        statistics.put("sweeperLastPurged", lastPurged.get());
+        statistics.put("sweeperLastDurationMs", lastDurationMs.get());
+        return statistics;
+    }
+}
@@ -0,0 +1,208 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.User;
+import com.examino.ai.model.UserSession;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Stateless session tokens: "v1.<payload>.<signature>", where the payload
+ * carries the user's identity and expiry and the signature is an HMAC-SHA256
+ * over the first two parts. Verification never touches the database; logouts
+ * are tracked in a small revocation list that forgets tokens once they expire.
+ */
+@Service
+@Slf4j
+public class SessionTokenService {
+
+    public static final String TOKEN_PREFIX = "v1.";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_FIELDS = 10;
+
+    private final SecretKeySpec signingKey;
+    private final ThreadLocal<Mac> macs;
+    private final Cache<String, Instant> revokedTokens;
+
+    public SessionTokenService(@Value("${auth.token.secret:}") String secret,
+                               @Value("${auth.token.revocation-max-entries:100000}") long revocationMaxEntries) {
+        byte[] keyBytes;
+        if (secret == null || secret.isEmpty()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("auth.token.secret is not set; using a random key, tokens will not survive a restart");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(revocationMaxEntries)
+                .expireAfter(new RevocationExpiry())
+                .build();
+    }
+
+    public String issue(User user, Instant expiresAt) {
+        Instant issuedAt = Instant.now();
+        String payload = String.join("\n",
+                UUID.randomUUID().toString(),
+                field(user.getUserId()),
+                field(user.getUsername()),
+                field(user.getRole()),
+                field(user.getFullName()),
+                field(user.getEmail()),
+                field(user.getAcademicLevel()),
+                field(user.getGrade()),
+                Long.toString(issuedAt.getEpochSecond()),
+                Long.toString(expiresAt.getEpochSecond()));
+        
+        String unsigned = TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return unsigned + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(unsigned));
+    }
+
+    public boolean isToken(String sessionId) {
+        return sessionId != null && sessionId.startsWith(TOKEN_PREFIX);
+    }
+
+    /**
+     * Returns the session carried by the token, or null if the token is
+     * malformed, forged, expired or revoked.
+     */
+    public UserSession verify(String token) {
+        String[] fields = verifiedFields(token);
+        if (fields == null) {
+            return null;
+        }
+        
+        try {
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[9]));
+            if (!expiresAt.isAfter(Instant.now()) || revokedTokens.getIfPresent(fields[0]) != null) {
+                return null;
+            }
+            
+            return UserSession.builder()
+                    .sessionId(token)
+                    .userId(value(fields[1]))
+                    .username(value(fields[2]))
+                    .role(value(fields[3]))
+                    .fullName(value(fields[4]))
+                    .email(value(fields[5]))
+                    .academicLevel(value(fields[6]))
+                    .grade(value(fields[7]))
+                    .createdAt(Instant.ofEpochSecond(Long.parseLong(fields[8])))
+                    .expiresAt(expiresAt)
+                    .isActive(true)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected malformed session token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Only signed, unexpired tokens are recorded, so forged or stale tokens
+     * cannot fill the revocation list and evict genuine entries.
+     */
+    public void revoke(String token) {
+        String[] fields = verifiedFields(token);
+        if (fields == null) {
+            return;
+        }
+        try {
+            Instant expiresAt = Instant.ofEpochSecond(Long.parseLong(fields[9]));
+            if (!expiresAt.isAfter(Instant.now())) {
+                return;
+            }
+            revokedTokens.put(fields[0], expiresAt);
+            log.info("Session token revoked for user: {}", value(fields[1]));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring revocation of malformed token: {}", e.getMessage());
+        }
+    }
+
+    public long getRevokedCount() {
+        return revokedTokens.estimatedSize();
+    }
+
+    // Payload fields of a well-formed token with a valid signature, or null
+    private String[] verifiedFields(String token) {
+        if (!isToken(token)) {
+            return null;
+        }
+        int separator = token.lastIndexOf('.');
+        if (separator <= TOKEN_PREFIX.length()) {
+            return null;
+        }
+        
+        try {
+            String unsigned = token.substring(0, separator);
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(sign(unsigned), signature)) {
+                return null;
+            }
+            
+            String payload = new String(Base64.getUrlDecoder().decode(unsigned.substring(TOKEN_PREFIX.length())),
+                    StandardCharsets.UTF_8);
+            String[] fields = payload.split("\n", -1);
+            return fields.length == PAYLOAD_FIELDS ? fields : null;
+        } catch (IllegalArgumentException e) {
+            log.debug("Rejected malformed session token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] sign(String data) {
+        return macs.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not initialise " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    // Newlines separate payload fields, so they cannot appear inside one
+    private String field(String value) {
+        return value == null ? "" : value.replace('\n', ' ');
+    }
+
+    private String value(String field) {
+        return field.isEmpty() ? null : field;
+    }
+
+    private static class RevocationExpiry implements Expiry<String, Instant> {
+        @Override
+        public long expireAfterCreate(String key, Instant expiresAt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Instant expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.examino.ai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Short answers graded against a rubric written in the expected answer, one
+ * directive per line:
+ * <pre>
+ * keywords: chlorophyll, sunlight|light, carbon dioxide|co2
+ * regex: \bphoto-?synthesis\b
+ * </pre>
+ * Each comma-separated keyword group is one required concept ("|" separates
+ * accepted alternatives) and earns an equal share of the marks; a matching
+ * regex earns full marks. A plain expected answer without directives is only
+ * decided locally on an exact (normalized) match; anything else goes to the
+ * AI grader.
+ */
+@Component
+public class ShortAnswerQuestionGrader implements QuestionGrader {
+
+    private static final String KEYWORDS = "keywords:";
+    private static final String REGEX = "regex:";
+
+    private record Rubric(List<List<String>> keywordGroups, List<Pattern> patterns, String plainAnswer) {
+    }
+
+    private final Cache<String, Rubric> rubrics = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    @Override
+    public Set<String> getTypes() {
+        return Set.of("SHORT_ANSWER", "SHORT", "FILL_IN_THE_BLANK", "FILL_IN");
+    }
+
+    @Override
+    public AiGradingService.GradingResult grade(String questionText, String expectedAnswer, String studentAnswer, int totalMarks) {
+        Rubric rubric = rubrics.get(expectedAnswer, ShortAnswerQuestionGrader::parse);
+        String answer = normalize(studentAnswer);
+        
+        if (rubric.plainAnswer() != null) {
+            if (rubric.plainAnswer().equals(answer)) {
+                return new AiGradingService.GradingResult(totalMarks, 100, "Exact match - Full marks", true);
+            }
+            return null;
+        }
+        
+        for (Pattern pattern : rubric.patterns()) {
+            if (pattern.matcher(studentAnswer).find()) {
+                return new AiGradingService.GradingResult(totalMarks, 100, "Matches the accepted answer", true);
+            }
+        }
+        if (rubric.keywordGroups().isEmpty()) {
+            return new AiGradingService.GradingResult(0, 0, "Does not match the accepted answer", false);
+        }
+        
+        String padded = " " + answer + " ";
+        List<String> missing = new ArrayList<>();
+        for (List<String> group : rubric.keywordGroups()) {
+            if (group.stream().noneMatch(keyword -> padded.contains(" " + keyword + " "))) {
+                missing.add(group.get(0));
+            }
+        }
+        int groups = rubric.keywordGroups().size();
+        int covered = groups - missing.size();
+        int accuracy = (int) Math.round(covered * 100.0 / groups);
+        int marks = (int) Math.round(totalMarks * (double) covered / groups);
+        String feedback = missing.isEmpty()
+                ? "All key points covered"
+                : "Covered " + covered + " of " + groups + " key points; missing: " + String.join(", ", missing);
+        return new AiGradingService.GradingResult(marks, accuracy, feedback, missing.isEmpty());
+    }
+
+    private static Rubric parse(String expectedAnswer) {
+        List<List<String>> keywordGroups = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        boolean directives = false;
+        
+        for (String rawLine : expectedAnswer.split("\\R")) {
+            String line = rawLine.trim();
+            String lower = line.toLowerCase(Locale.ROOT);
+            if (lower.startsWith(KEYWORDS)) {
+                directives = true;
+                for (String group : line.substring(KEYWORDS.length()).split(",")) {
+                    List<String> alternatives = Arrays.stream(group.split("\\|"))
+                            .map(ShortAnswerQuestionGrader::normalize)
+                            .filter(keyword -> !keyword.isEmpty())
+                            .toList();
+                    if (!alternatives.isEmpty()) {
+                        keywordGroups.add(alternatives);
+                    }
+                }
+            } else if (lower.startsWith(REGEX)) {
+                directives = true;
+                try {
+                    patterns.add(Pattern.compile(line.substring(REGEX.length()).trim(),
+                            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+                } catch (PatternSyntaxException e) {
+                    // An invalid pattern never matches; keyword groups still apply
+                }
+            }
+        }
+        return directives
+                ? new Rubric(keywordGroups, patterns, null)
+                : new Rubric(List.of(), List.of(), normalize(expectedAnswer));
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+}
@@ -0,0 +1,72 @@
+package com.examino.ai.service;
+
+import com.examino.ai.repository.StoredBlobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically unlinks content-addressed blobs whose reference count has
+ * stayed at zero for longer than the grace period.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageSweeperService {
+
+    private final StoredBlobRepository blobRepository;
+    private final FileStorageService fileStorageService;
+
+    @Value("${storage.blob-sweeper.grace-minutes:10}")
+    private long graceMinutes;
+
+    @Value("${storage.blob-sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalPurged = new AtomicLong();
+    private final AtomicLong lastPurged = new AtomicLong();
+
+    @Scheduled(fixedDelayString = "${storage.blob-sweeper.interval-ms:600000}",
+               initialDelayString = "${storage.blob-sweeper.initial-delay-ms:120000}")
+    public void sweep() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(graceMinutes));
+        long purged = 0;
+        
+        try {
+            List<String> hashes = blobRepository.findReleasedBefore(cutoff, PageRequest.of(0, chunkSize));
+            for (String hash : hashes) {
+                if (fileStorageService.purgeIfUnreferenced(hash)) {
+                    purged++;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Blob sweep failed after purging {} blobs: {}", purged, e.getMessage());
+        }
+        
+        runs.incrementAndGet();
+        totalPurged.addAndGet(purged);
+        lastPurged.set(purged);
+        if (purged > 0) {
+            log.info("Blob sweep removed {} unreferenced blobs", purged);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("sweeperRuns", runs.get());
+        statistics.put("sweeperTotalPurged", totalPurged.get());
+        statistics.put("sweeperLastPurged", lastPurged.get());
+        return statistics;
+    }
+}
@@ -0,0 +1,168 @@
+package com.examino.ai.service;
+
+import com.examino.ai.dto.GradeCount;
+import com.examino.ai.dto.StudentScoreStats;
+import com.examino.ai.model.ExamResult;
+import com.examino.ai.model.StudentDashboard;
+import com.examino.ai.repository.ExamResultRepository;
+import com.examino.ai.repository.StudentDashboardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentDashboardService {
+
+    public static final int RECENT_RESULTS = 5;
+
+    private final StudentDashboardRepository studentDashboardRepository;
+    private final ExamResultRepository examResultRepository;
+
+    @Transactional
+    public void recordResult(ExamResult result) {
+        // Insert before any locking read, which would take a gap lock on a missing row
+        studentDashboardRepository.insertIfAbsent(result.getStudentId());
+        StudentDashboard dashboard = lockRow(result.getStudentId());
+        if (dashboard.getTotalExams() == 0) {
+            // No snapshot yet: derive it from the raw results, which already include this one
+            rebuild(result.getStudentId());
+            return;
+        }
+        
+        int score = result.getScore();
+        dashboard.setTotalExams(dashboard.getTotalExams() + 1);
+        dashboard.setScoreSum(dashboard.getScoreSum() + score);
+        if (dashboard.getHighestScore() == null || score > dashboard.getHighestScore()) {
+            dashboard.setHighestScore(score);
+        }
+        if (dashboard.getLowestScore() == null || score < dashboard.getLowestScore()) {
+            dashboard.setLowestScore(score);
+        }
+        dashboard.setTotalCorrect(dashboard.getTotalCorrect() + valueOrZero(result.getCorrectAnswers()));
+        dashboard.setTotalWrong(dashboard.getTotalWrong() + valueOrZero(result.getWrongAnswers()));
+        if (result.getGrade() != null) {
+            dashboard.getGradeCounts().merge(result.getGrade(), 1, Integer::sum);
+        }
+        dashboard.setRecentResultIds(pushRecent(dashboard.getRecentResultIds(), result.getResultId()));
+        
+        studentDashboardRepository.save(dashboard);
+    }
+
+    /**
+     * Deletes are rare, so the snapshot is simply re-derived rather than
+     * decremented (highest/lowest and the recent list cannot be rolled back).
+     */
+    @Transactional
+    public void removeResult(ExamResult result) {
+        rebuild(result.getStudentId());
+    }
+
+    @Transactional
+    public StudentDashboard rebuild(String studentId) {
+        StudentScoreStats stats = examResultRepository.findScoreStatsByStudentId(studentId);
+        if (stats == null || stats.getTotalExams() == 0) {
+            studentDashboardRepository.deleteById(studentId);
+            return null;
+        }
+        
+        Map<String, Integer> gradeCounts = new HashMap<>();
+        for (GradeCount gradeCount : examResultRepository.countGradesByStudentId(studentId)) {
+            gradeCounts.put(gradeCount.getGrade(), gradeCount.getCount().intValue());
+        }
+        String recentResultIds = examResultRepository.findTop5ByStudentIdOrderByCreatedAtDesc(studentId).stream()
+                .map(ExamResult::getResultId)
+                .collect(Collectors.joining(","));
+        
+        studentDashboardRepository.insertIfAbsent(studentId);
+        StudentDashboard dashboard = lockRow(studentId);
+        dashboard.setTotalExams(stats.getTotalExams());
+        dashboard.setScoreSum(stats.getScoreSum());
+        dashboard.setHighestScore(stats.getHighestScore());
+        dashboard.setLowestScore(stats.getLowestScore());
+        dashboard.setTotalCorrect(valueOrZero(stats.getTotalCorrect()));
+        dashboard.setTotalWrong(valueOrZero(stats.getTotalWrong()));
+        dashboard.getGradeCounts().clear();
+        dashboard.getGradeCounts().putAll(gradeCounts);
+        dashboard.setRecentResultIds(recentResultIds);
+        
+        return studentDashboardRepository.save(dashboard);
+    }
+
+    @Transactional
+    public Object getDashboard(String studentId) {
+        StudentDashboard dashboard = studentDashboardRepository.findById(studentId)
+                .orElseGet(() -> rebuild(studentId));
+        
+        if (dashboard == null) {
+            return Map.of(
+                "totalExams", 0,
+                "averageScore", 0.0,
+                "message", "No exams attempted yet"
+            );
+        }
+        
+        long totalAttempted = dashboard.getTotalCorrect() + dashboard.getTotalWrong();
+        double accuracyRate = totalAttempted > 0 ? (dashboard.getTotalCorrect() * 100.0) / totalAttempted : 0;
+        
+        Map<String, Integer> gradeDistribution = new HashMap<>(dashboard.getGradeCounts());
+        String mostCommonGrade = gradeDistribution.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse("N/A");
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("totalExams", dashboard.getTotalExams());
+        result.put("averageScore", (double) dashboard.getScoreSum() / dashboard.getTotalExams());
+        result.put("highestScore", dashboard.getHighestScore());
+        result.put("lowestScore", dashboard.getLowestScore());
+        result.put("mostCommonGrade", mostCommonGrade);
+        result.put("totalQuestionsAttempted", totalAttempted);
+        result.put("totalCorrectAnswers", dashboard.getTotalCorrect());
+        result.put("totalWrongAnswers", dashboard.getTotalWrong());
+        result.put("accuracyRate", Math.round(accuracyRate * 100.0) / 100.0);
+        result.put("gradeDistribution", gradeDistribution);
+        result.put("recentResults", loadRecentResults(dashboard.getRecentResultIds()));
+        
+        return result;
+    }
+
+    private List<ExamResult> loadRecentResults(String recentResultIds) {
+        if (recentResultIds == null || recentResultIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> ids = Arrays.asList(recentResultIds.split(","));
+        Map<String, ExamResult> byId = examResultRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ExamResult::getResultId, r -> r));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private StudentDashboard lockRow(String studentId) {
+        return studentDashboardRepository.findByIdForUpdate(studentId)
+                .orElseThrow(() -> new RuntimeException("Dashboard row missing for student: " + studentId));
+    }
+
+    private String pushRecent(String recentResultIds, String resultId) {
+        if (recentResultIds == null || recentResultIds.isEmpty()) {
+            return resultId;
+        }
+        String[] ids = recentResultIds.split(",");
+        StringBuilder updated = new StringBuilder(resultId);
+        for (int i = 0; i < ids.length && i < RECENT_RESULTS - 1; i++) {
+            updated.append(',').append(ids[i]);
+        }
+        return updated.toString();
+    }
+
+    private long valueOrZero(Number value) {
+        return value != null ? value.longValue() : 0;
+    }
+}
@@ -1,7 +1,12 @@
 package com.examino.ai.service;
 
+import com.examino.ai.dto.ExamResultSummary;
 import com.examino.ai.dto.ExamSubmissionRequest;
+import com.examino.ai.dto.ExamSummary;
+import com.examino.ai.dto.ResultPage;
+import com.examino.ai.dto.StoredFile;
 import com.examino.ai.model.Exam;
+import com.examino.ai.model.ExamAttempt;
 import com.examino.ai.model.ExamResult;
 import com.examino.ai.model.Question;
 import com.examino.ai.model.QuestionResult;
@@ -9,12 +14,11 @@ import com.examino.ai.model.User;
 import com.examino.ai.repository.ExamResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,48 +29,29 @@ public class StudentService {
     private final FileStorageService fileStorageService;
     private final TeacherService teacherService;
     private final ExamResultRepository examResultRepository;
-    private final AiGradingService aiGradingService;
+    private final ExamResultService examResultService;
+    private final StudentDashboardService studentDashboardService;
+    private final ExamPayloadService examPayloadService;
+    private final QuestionGradingService questionGradingService;
+    private final ExamAttemptService examAttemptService;
+    private final SubmissionAdmissionService submissionAdmissionService;
+    private final CohortGradingService cohortGradingService;
     
     public static void addExam(Exam exam) {
         // No longer needed with database
     }
 
-    public List<Exam> getAvailableExamsForStudent(String studentId) {
+    public List<ExamSummary> getAvailableExamsForStudent(String studentId) {
         User student = authService.getUserById(studentId);
         if (student == null) {
             log.warn("Student not found: {}", studentId);
             return new ArrayList<>();
         }
         
-        log.info("Finding exams for student: {} (Level: {}, Grade: {})", studentId, student.getAcademicLevel(), student.getGrade());
-        
-        List<Exam> allExams = teacherService.getAllExams();
-        log.info("Total exams in database: {}", allExams.size());
-        
-        // Show all exam details
-        for (Exam exam : allExams) {
-            log.info("Exam: {} - Active: {}, Level: '{}', Grade: '{}'", 
-                exam.getTitle(), exam.isActive(), exam.getAcademicLevel(), exam.getGrade());
-        }
-        
-        // TEMPORARY: Return all active exams to debug
-        List<Exam> activeExams = allExams.stream()
-                .filter(Exam::isActive)
-                .collect(Collectors.toList());
-        
-        log.info("Returning {} active exams (filtering disabled for debugging)", activeExams.size());
-        return activeExams;
-        
-        /* Original filtering code - uncomment after debugging:
-        List<Exam> filteredExams = allExams.stream()
-                .filter(Exam::isActive)
-                .filter(exam -> exam.getAcademicLevel() != null && exam.getAcademicLevel().equals(student.getAcademicLevel()))
-                .filter(exam -> exam.getGrade() != null && exam.getGrade().equals(student.getGrade()))
-                .collect(Collectors.toList());
-        
-        log.info("Filtered exams for student: {}", filteredExams.size());
-        return filteredExams;
-        */
+        List<ExamSummary> exams = teacherService.getActiveExams(student.getAcademicLevel(), student.getGrade());
+        log.debug("Found {} exams for student: {} (Level: {}, Grade: {})",
+                exams.size(), studentId, student.getAcademicLevel(), student.getGrade());
+        return exams;
     }
 
     public Exam getExamById(String examId) {
@@ -77,8 +62,125 @@ public class StudentService {
         return exam;
     }
 
+    public ExamPayloadService.SerializedExam getExamPayload(String examId) {
+        ExamPayloadService.SerializedExam payload = examPayloadService.getPayload(examId);
+        if (payload == null) {
+            throw new RuntimeException("Exam not found");
+        }
+        return payload;
+    }
+
+    public ExamAttempt startExamAttempt(String studentId, String examId) {
+        return examAttemptService.startAttempt(studentId, examId);
+    }
+
+    public ExamAttempt saveAttemptAnswers(String studentId, String attemptId, Map<String, String> answers) {
+        return examAttemptService.saveAnswers(attemptId, studentId, answers);
+    }
+
     public ExamResult submitExam(ExamSubmissionRequest request) {
-        Exam exam = getExamById(request.getExamId());
+        return submissionAdmissionService.execute(() -> admitSubmission(request));
+    }
+
+    private ExamResult admitSubmission(ExamSubmissionRequest request) {
+        if (request.getAttemptId() == null) {
+            ExamAttempt attempt = examAttemptService.claimOpenAttempt(
+                    request.getStudentId(), request.getExamId(), request.getAnswers());
+            return attempt == null ? gradeSubmission(request) : finishAttempt(attempt, false);
+        }
+        ExamAttempt attempt = examAttemptService.claimForSubmission(
+                request.getAttemptId(), request.getStudentId(), request.getAnswers());
+        if (attempt == null) {
+            throw new RuntimeException("Attempt is already submitted");
+        }
+        return finishAttempt(attempt, false);
+    }
+
+    @EventListener
+    public void onAttemptDeadline(ExamAttemptService.AttemptDeadlineEvent event) {
+        ExamAttempt attempt = examAttemptService.claimForSubmission(event.attemptId(), null, null);
+        if (attempt == null) {
+            return; // submitted by the student in the meantime
+        }
+        try {
+            finishAttempt(attempt, true);
+            log.info("Auto-submitted exam attempt {} at deadline", attempt.getAttemptId());
+        } catch (Exception e) {
+            log.error("Auto-submit failed for attempt {}: {}", attempt.getAttemptId(), e.getMessage());
+        }
+    }
+
+    private ExamResult finishAttempt(ExamAttempt attempt, boolean automatic) {
+        ExamSubmissionRequest submission = ExamSubmissionRequest.builder()
+                .studentId(attempt.getStudentId())
+                .examId(attempt.getExamId())
+                .attemptId(attempt.getAttemptId())
+                .answers(new HashMap<>(attempt.getAnswers()))
+                .build();
+        try {
+            ExamResult result = gradeSubmission(submission);
+            examAttemptService.completeAttempt(attempt.getAttemptId(), result.getResultId(), automatic);
+            return result;
+        } catch (RuntimeException e) {
+            examAttemptService.releaseAttempt(attempt.getAttemptId(), automatic);
+            throw e;
+        }
+    }
+
+    /**
+     * Grades a whole class's submissions for one exam at once, so answers to
+     * each question are graded as a cohort and near-identical answers share
+     * a single grading call.
+     */
+    public List<ExamResult> gradeCohortSubmissions(String examId, List<ExamSubmissionRequest> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            throw new RuntimeException("No submissions provided");
+        }
+        if (submissions.stream().anyMatch(submission -> submission.getStudentId() == null || submission.getStudentId().isBlank())) {
+            throw new RuntimeException("Every submission needs a studentId");
+        }
+        Exam exam = getExamById(examId);
+        questionGradingService.registerExam(exam);
+        List<Map<String, AiGradingService.GradingResult>> pregraded = new ArrayList<>();
+        for (int i = 0; i < submissions.size(); i++) {
+            pregraded.add(new HashMap<>());
+        }
+        
+        for (Question question : exam.getQuestions()) {
+            List<Integer> submissionIndexes = new ArrayList<>();
+            List<String> answers = new ArrayList<>();
+            for (int i = 0; i < submissions.size(); i++) {
+                Map<String, String> submitted = submissions.get(i).getAnswers();
+                String answer = submitted == null ? null : submitted.get(question.getQuestionId());
+                if (answer != null && !answer.trim().isEmpty()) {
+                    submissionIndexes.add(i);
+                    answers.add(answer);
+                }
+            }
+            List<AiGradingService.GradingResult> graded = cohortGradingService.gradeCohort(question, answers);
+            for (int j = 0; j < graded.size(); j++) {
+                if (graded.get(j) != null) {
+                    pregraded.get(submissionIndexes.get(j)).put(question.getQuestionId(), graded.get(j));
+                }
+            }
+        }
+        
+        List<ExamResult> results = new ArrayList<>();
+        for (int i = 0; i < submissions.size(); i++) {
+            ExamSubmissionRequest submission = submissions.get(i);
+            submission.setExamId(examId);
+            results.add(gradeSubmission(submission, exam, pregraded.get(i)));
+        }
+        return results;
+    }
+
+    private ExamResult gradeSubmission(ExamSubmissionRequest request) {
+        return gradeSubmission(request, getExamById(request.getExamId()), Map.of());
+    }
+
+    private ExamResult gradeSubmission(ExamSubmissionRequest request, Exam exam,
+                                       Map<String, AiGradingService.GradingResult> pregraded) {
+        questionGradingService.registerExam(exam);
         
         int totalQuestions = exam.getQuestions().size();
         int correctAnswers = 0;
@@ -88,7 +190,7 @@ public class StudentService {
         
         // Grade each question using AI
         for (Question question : exam.getQuestions()) {
-            String studentAnswer = request.getAnswers().get(question.getQuestionId());
+            String studentAnswer = request.getAnswers() == null ? null : request.getAnswers().get(question.getQuestionId());
             
             try {
                 if (studentAnswer == null || studentAnswer.trim().isEmpty()) {
@@ -106,13 +208,11 @@ public class StudentService {
                     continue;
                 }
                 
-                // Use AI grading service with error handling
-                AiGradingService.GradingResult gradingResult = aiGradingService.gradeAnswer(
-                        question.getQuestionText(),
-                        question.getExpectedAnswer(),
-                        studentAnswer,
-                        question.getMarks()
-                );
+                // Objective types are graded locally; open-ended ones go to the AI grader
+                AiGradingService.GradingResult gradingResult = pregraded.get(question.getQuestionId());
+                if (gradingResult == null) {
+                    gradingResult = questionGradingService.grade(question, studentAnswer);
+                }
                 
                 if (gradingResult.isCorrect()) {
                     correctAnswers++;
@@ -196,7 +296,7 @@ public class StudentService {
                 .createdAt(Instant.now())
                 .build();
 
-        examResultRepository.save(result);
+        examResultService.saveResult(result);
         
         log.info("Exam graded and saved: studentId={}, examId={}, score={}, grade={}", 
                 request.getStudentId(), request.getExamId(), score, grade);
@@ -204,8 +304,16 @@ public class StudentService {
         return result;
     }
 
-    public List<ExamResult> getStudentResults(String studentId) {
-        return examResultRepository.findByStudentId(studentId);
+    public ResultPage<ExamResultSummary> getStudentResults(String studentId, String cursor, Integer limit, boolean includeText) {
+        return examResultService.getStudentResultsPage(studentId, cursor, limit, includeText);
+    }
+
+    public ExamResult getStudentResult(String studentId, String resultId) {
+        ExamResult result = examResultService.getResult(resultId);
+        if (!result.getStudentId().equals(studentId)) {
+            throw new RuntimeException("Result not found");
+        }
+        return result;
     }
 
     public List<ExamResult> getAllResults() {
@@ -213,50 +321,10 @@ public class StudentService {
     }
 
     public Object getStudentDashboard(String studentId) {
-        List<ExamResult> results = getStudentResults(studentId);
-        
-        if (results.isEmpty()) {
-            return Map.of(
-                "totalExams", 0,
-                "averageScore", 0.0,
-                "message", "No exams attempted yet"
-            );
-        }
-        
-        // Calculate analytics
-        int totalCorrect = results.stream().mapToInt(ExamResult::getCorrectAnswers).sum();
-        int totalWrong = results.stream().mapToInt(ExamResult::getWrongAnswers).sum();
-        int totalAttempted = totalCorrect + totalWrong;
-        double accuracyRate = totalAttempted > 0 ? (totalCorrect * 100.0) / totalAttempted : 0;
-        
-        Map<String, Integer> gradeDistribution = new HashMap<>();
-        results.forEach(r -> gradeDistribution.merge(r.getGrade(), 1, Integer::sum));
-        
-        String mostCommonGrade = gradeDistribution.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .map(Map.Entry::getKey)
-                .orElse("N/A");
-        
-        Map<String, Object> dashboard = new HashMap<>();
-        dashboard.put("totalExams", results.size());
-        dashboard.put("averageScore", results.stream().mapToInt(ExamResult::getScore).average().orElse(0.0));
-        dashboard.put("highestScore", results.stream().mapToInt(ExamResult::getScore).max().orElse(0));
-        dashboard.put("lowestScore", results.stream().mapToInt(ExamResult::getScore).min().orElse(0));
-        dashboard.put("mostCommonGrade", mostCommonGrade);
-        dashboard.put("totalQuestionsAttempted", totalAttempted);
-        dashboard.put("totalCorrectAnswers", totalCorrect);
-        dashboard.put("totalWrongAnswers", totalWrong);
-        dashboard.put("accuracyRate", Math.round(accuracyRate * 100.0) / 100.0);
-        dashboard.put("gradeDistribution", gradeDistribution);
-        dashboard.put("recentResults", results.stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .limit(5)
-                .collect(Collectors.toList()));
-        
-        return dashboard;
+        return studentDashboardService.getDashboard(studentId);
     }
 
-    public Resource downloadStudentAnswer(String studentId, String examId) {
+    public StoredFile downloadStudentAnswer(String studentId, String examId) {
         ExamResult result = examResultRepository.findByStudentId(studentId).stream()
                 .filter(r -> r.getExamId().equals(examId))
                 .findFirst()
@@ -265,6 +333,6 @@ public class StudentService {
         if (result.getAnswerPaperPath() == null) {
             throw new RuntimeException("Answer paper not found");
         }
-        return fileStorageService.loadFileAsResource(result.getAnswerPaperPath());
+        return fileStorageService.loadFile(result.getAnswerPaperPath());
     }
 }
\ No newline at end of file
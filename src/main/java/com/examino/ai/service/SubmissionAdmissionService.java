@@ -0,0 +1,206 @@
+package com.examino.ai.service;
+
+import com.examino.ai.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of exam submission. At most {@code limit}
+ * submissions grade concurrently and at most queue-capacity wait for a slot;
+ * anything beyond that is rejected at once with a Retry-After estimate.
+ * The limit adapts to grading latency (a gradient of long-term over
+ * short-term average latency): it shrinks when grading slows down under
+ * load or when queued submissions time out, and grows back while latency
+ * stays near its baseline and the current limit is actually in use.
+ * Queued submissions hold a Tomcat thread while they wait, so in-flight
+ * plus queued is kept below the connector's thread pool.
+ */
+@Service
+@Slf4j
+public class SubmissionAdmissionService {
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 0.01;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double TIMEOUT_BACKOFF = 0.9;
+    // Share of Tomcat threads that waiting and grading submissions may occupy
+    private static final double THREAD_SHARE = 0.75;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final long queueTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    // All guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private int maxQueued;
+    private double shortLatencyMs;
+    private double longLatencyMs;
+    private long admitted;
+    private long admittedAfterWait;
+    private long rejectedQueueFull;
+    private long rejectedTimeout;
+    private long timeoutBackoffs;
+    private long completed;
+    private long failed;
+    private double totalQueueWaitMs;
+
+    public SubmissionAdmissionService(@Value("${exam.submission.initial-limit:16}") int initialLimit,
+                                      @Value("${exam.submission.min-limit:4}") int minLimit,
+                                      @Value("${exam.submission.max-limit:128}") int maxLimit,
+                                      @Value("${exam.submission.queue-capacity:500}") int queueCapacity,
+                                      @Value("${exam.submission.queue-timeout-ms:20000}") long queueTimeoutMs,
+                                      @Value("${server.tomcat.threads.max:200}") int tomcatThreads) {
+        int threadBudget = Math.max(1, (int) (tomcatThreads * THREAD_SHARE));
+        if (maxLimit + queueCapacity > threadBudget) {
+            log.warn("exam.submission max-limit {} + queue-capacity {} exceeds {} of {} Tomcat threads; clamping",
+                    maxLimit, queueCapacity, threadBudget, tomcatThreads);
+            maxLimit = Math.max(1, Math.min(maxLimit, threadBudget));
+            queueCapacity = Math.max(0, threadBudget - maxLimit);
+        }
+        this.minLimit = Math.min(minLimit, maxLimit);
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(this.minLimit, Math.min(maxLimit, initialLimit));
+        this.queueCapacity = queueCapacity;
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    public <T> T execute(Supplier<T> submission) {
+        acquire();
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            T result = submission.get();
+            succeeded = true;
+            return result;
+        } finally {
+            release((System.nanoTime() - start) / 1_000_000.0, succeeded);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        lock.lock();
+        try {
+            statistics.put("concurrencyLimit", (int) limit);
+            statistics.put("inFlight", inFlight);
+            statistics.put("queueDepth", queued);
+            statistics.put("maxQueueDepth", maxQueued);
+            statistics.put("queueCapacity", queueCapacity);
+            statistics.put("admitted", admitted);
+            statistics.put("admittedAfterWait", admittedAfterWait);
+            statistics.put("rejectedQueueFull", rejectedQueueFull);
+            statistics.put("rejectedQueueTimeout", rejectedTimeout);
+            statistics.put("timeoutBackoffs", timeoutBackoffs);
+            statistics.put("completed", completed);
+            statistics.put("failed", failed);
+            statistics.put("averageQueueWaitMs", admittedAfterWait == 0 ? 0.0 : totalQueueWaitMs / admittedAfterWait);
+            statistics.put("recentGradingLatencyMs", shortLatencyMs);
+            statistics.put("baselineGradingLatencyMs", longLatencyMs);
+        } finally {
+            lock.unlock();
+        }
+        return statistics;
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                admitted++;
+                return;
+            }
+            if (queued >= queueCapacity) {
+                rejectedQueueFull++;
+                throw busy();
+            }
+            
+            queued++;
+            maxQueued = Math.max(maxQueued, queued);
+            long waitStart = System.nanoTime();
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        rejectedTimeout++;
+                        backOff();
+                        throw busy();
+                    }
+                    remainingNanos = slotFreed.awaitNanos(remainingNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceBusyException("Submission interrupted while queued", 1);
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            admitted++;
+            admittedAfterWait++;
+            totalQueueWaitMs += (System.nanoTime() - waitStart) / 1_000_000.0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(double latencyMs, boolean succeeded) {
+        lock.lock();
+        try {
+            boolean limitInUse = inFlight * 2 >= (int) limit;
+            inFlight--;
+            if (succeeded) {
+                completed++;
+                updateLimit(latencyMs, limitInUse);
+            } else {
+                failed++;
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLimit(double latencyMs, boolean limitInUse) {
+        if (longLatencyMs == 0) {
+            shortLatencyMs = latencyMs;
+            longLatencyMs = latencyMs;
+            return;
+        }
+        shortLatencyMs += SHORT_ALPHA * (latencyMs - shortLatencyMs);
+        longLatencyMs += LONG_ALPHA * (latencyMs - longLatencyMs);
+        
+        // Below 1 when recent grading is slower than usual; sqrt(limit) leaves room to probe upwards,
+        // but only while at least half the limit is used, so an idle service does not drift to max
+        double gradient = Math.max(0.5, Math.min(1.0, longLatencyMs / shortLatencyMs));
+        double target = limit * gradient + (limitInUse ? Math.sqrt(limit) : 0);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING));
+    }
+
+    // A queued submission waited out its timeout: grading is not keeping up, so shed concurrency
+    private void backOff() {
+        limit = Math.max(minLimit, limit * TIMEOUT_BACKOFF);
+        timeoutBackoffs++;
+    }
+
+    // Time for the current queue to drain at the present limit and latency
+    private ServiceBusyException busy() {
+        double latencySeconds = Math.max(shortLatencyMs, 1) / 1000.0;
+        long retryAfter = (long) Math.ceil((queued + 1) * latencySeconds / Math.max(1, (int) limit));
+        return new ServiceBusyException("Submissions are queued to capacity, please retry shortly",
+                Math.max(1, Math.min(retryAfter, 60)));
+    }
+}
@@ -1,13 +1,19 @@
 package com.examino.ai.service;
 
 import com.examino.ai.dto.ExamRequest;
+import com.examino.ai.dto.ExamResultSummary;
+import com.examino.ai.dto.ExamScoreStats;
+import com.examino.ai.dto.ExamSummary;
+import com.examino.ai.dto.GradeCount;
+import com.examino.ai.dto.ResultPage;
+import com.examino.ai.dto.StoredFile;
 import com.examino.ai.model.Exam;
 import com.examino.ai.model.ExamResult;
 import com.examino.ai.repository.ExamRepository;
 import com.examino.ai.repository.ExamResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -15,7 +21,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +30,10 @@ public class TeacherService {
     private final FileStorageService fileStorageService;
     private final ExamRepository examRepository;
     private final ExamResultRepository examResultRepository;
+    private final ExamResultService examResultService;
+    private final ExamAnalyticsService examAnalyticsService;
+    private final ExamCacheService examCacheService;
+    private final PlagiarismIndexService plagiarismIndexService;
 
     public Exam createExam(ExamRequest request) {
         String examId = UUID.randomUUID().toString();
@@ -44,119 +53,135 @@ public class TeacherService {
                 .build();
 
         examRepository.save(exam);
+        examCacheService.evictExamListings();
         
         log.info("Created exam: {} - {} for level: {}, grade: {}", examId, request.getTitle(), request.getAcademicLevel(), request.getGrade());
         
         return exam;
     }
 
-    public List<Exam> getExamsByTeacher(String teacherId) {
+    public List<ExamSummary> getExamsByTeacher(String teacherId) {
         return examRepository.findByTeacherId(teacherId);
     }
 
     @Transactional
     public void deleteExam(String examId) {
-        // Delete related exam results first
-        examResultRepository.deleteByExamId(examId);
-        // Then delete the exam
-        examRepository.deleteById(examId);
+        // Delete related exam results and their aggregates first
+        examResultService.deleteResultsForExam(examId);
+        // Then delete the exam and drop its question paper reference
+        examRepository.findById(examId).ifPresent(exam -> {
+            examRepository.delete(exam);
+            if (exam.getQuestionPaperPath() != null) {
+                fileStorageService.deleteFile(exam.getQuestionPaperPath());
+            }
+        });
+        examCacheService.evictExam(examId);
         log.info("Deleted exam and related results: {}", examId);
     }
 
-    public List<ExamResult> getExamResults(String examId) {
-        return examResultRepository.findByExamId(examId);
+    public ResultPage<ExamResultSummary> getExamResults(String examId, String cursor, Integer limit, boolean includeText) {
+        return examResultService.getExamResultsPage(examId, cursor, limit, includeText);
+    }
+
+    public ExamResult getExamResult(String resultId) {
+        return examResultService.getResult(resultId);
     }
 
     public void processAnswerSheets(String examId, MultipartFile[] files) throws Exception {
         log.info("Processing {} answer sheets for exam: {}", files.length, examId);
     }
 
+    @Transactional(readOnly = true)
     public Exam getExamById(String examId) {
-        return examRepository.findById(examId).orElse(null);
+        // findById and the questions collection are both served from the second-level cache
+        Exam exam = examRepository.findById(examId).orElse(null);
+        if (exam != null) {
+            Hibernate.initialize(exam.getQuestions());
+        }
+        return exam;
+    }
+
+    public List<ExamSummary> getAllExams() {
+        return examRepository.findAllSummaries();
     }
 
-    public List<Exam> getAllExams() {
-        return examRepository.findAll();
+    public List<ExamSummary> getActiveExams(String academicLevel, String grade) {
+        return examRepository.findByAcademicLevelAndGradeAndIsActiveTrue(academicLevel, grade);
     }
 
-    public Resource downloadQuestionPaper(String examId) {
+    public StoredFile downloadQuestionPaper(String examId) {
         Exam exam = examRepository.findById(examId).orElse(null);
         if (exam == null || exam.getQuestionPaperPath() == null) {
             throw new RuntimeException("Question paper not found");
         }
-        return fileStorageService.loadFileAsResource(exam.getQuestionPaperPath());
+        return fileStorageService.loadFile(exam.getQuestionPaperPath());
     }
 
-    public Resource downloadAnswerPaper(String resultId) {
+    public StoredFile downloadAnswerPaper(String resultId) {
         ExamResult result = examResultRepository.findById(resultId)
                 .orElseThrow(() -> new RuntimeException("Answer paper not found"));
         
         if (result.getAnswerPaperPath() == null) {
             throw new RuntimeException("Answer paper not found");
         }
-        return fileStorageService.loadFileAsResource(result.getAnswerPaperPath());
+        return fileStorageService.loadFile(result.getAnswerPaperPath());
     }
 
     public Map<String, Object> getExamAnalytics(String examId) {
-        List<ExamResult> results = examResultRepository.findByExamId(examId);
-        
-        if (results.isEmpty()) {
-            return Map.of("message", "No submissions yet");
+        return examAnalyticsService.getAnalytics(examId);
+    }
+
+    public Map<String, Object> getSimilarityReport(String examId, int minMatchedQuestions, int limit) {
+        Exam exam = getExamById(examId);
+        if (exam == null) {
+            throw new RuntimeException("Exam not found");
         }
-        
-        Map<String, Object> analytics = new HashMap<>();
-        analytics.put("totalSubmissions", results.size());
-        analytics.put("averageScore", results.stream().mapToInt(ExamResult::getScore).average().orElse(0.0));
-        analytics.put("highestScore", results.stream().mapToInt(ExamResult::getScore).max().orElse(0));
-        analytics.put("lowestScore", results.stream().mapToInt(ExamResult::getScore).min().orElse(0));
-        analytics.put("passRate", results.stream().filter(r -> r.getScore() >= 50).count() * 100.0 / results.size());
-        
-        Map<String, Long> gradeDistribution = results.stream()
-                .collect(Collectors.groupingBy(ExamResult::getGrade, Collectors.counting()));
-        analytics.put("gradeDistribution", gradeDistribution);
-        
-        Map<String, Double> scoreRanges = new HashMap<>();
-        scoreRanges.put("90-100", results.stream().filter(r -> r.getScore() >= 90).count() * 100.0 / results.size());
-        scoreRanges.put("80-89", results.stream().filter(r -> r.getScore() >= 80 && r.getScore() < 90).count() * 100.0 / results.size());
-        scoreRanges.put("70-79", results.stream().filter(r -> r.getScore() >= 70 && r.getScore() < 80).count() * 100.0 / results.size());
-        scoreRanges.put("60-69", results.stream().filter(r -> r.getScore() >= 60 && r.getScore() < 70).count() * 100.0 / results.size());
-        scoreRanges.put("50-59", results.stream().filter(r -> r.getScore() >= 50 && r.getScore() < 60).count() * 100.0 / results.size());
-        scoreRanges.put("Below 50", results.stream().filter(r -> r.getScore() < 50).count() * 100.0 / results.size());
-        analytics.put("scoreRanges", scoreRanges);
-        
-        return analytics;
+        return plagiarismIndexService.getReport(exam, minMatchedQuestions, limit);
+    }
+
+    public void rebuildExamAnalytics(String examId) {
+        examAnalyticsService.rebuild(examId);
+    }
+
+    public int rebuildAllExamAnalytics() {
+        List<String> examIds = examRepository.findAllExamIds();
+        for (String examId : examIds) {
+            examAnalyticsService.rebuild(examId);
+        }
+        log.info("Rebuilt analytics for {} exams", examIds.size());
+        return examIds.size();
     }
 
     public Map<String, Object> getClassPerformance(String teacherId) {
-        List<Exam> teacherExams = getExamsByTeacher(teacherId);
-        List<ExamResult> allResults = examResultRepository.findAll().stream()
-                .filter(r -> teacherExams.stream().anyMatch(e -> e.getExamId().equals(r.getExamId())))
-                .collect(Collectors.toList());
+        List<ExamScoreStats> examStats = examResultRepository.findExamScoreStatsByTeacherId(teacherId);
+        long totalSubmissions = examStats.stream().mapToLong(ExamScoreStats::getSubmissions).sum();
         
-        if (allResults.isEmpty()) {
+        if (totalSubmissions == 0) {
             return Map.of("message", "No student submissions yet");
         }
         
-        Map<String, Object> performance = new HashMap<>();
-        performance.put("totalExams", teacherExams.size());
-        performance.put("totalStudents", allResults.stream().map(ExamResult::getStudentId).distinct().count());
-        performance.put("totalSubmissions", allResults.size());
-        performance.put("overallAverageScore", allResults.stream().mapToInt(ExamResult::getScore).average().orElse(0.0));
-        performance.put("overallPassRate", allResults.stream().filter(r -> r.getScore() >= 50).count() * 100.0 / allResults.size());
-        
+        long totalPassed = 0;
+        double totalScore = 0;
         Map<String, Double> examAverages = new HashMap<>();
-        for (Exam exam : teacherExams) {
-            double avg = allResults.stream()
-                    .filter(r -> r.getExamId().equals(exam.getExamId()))
-                    .mapToInt(ExamResult::getScore)
-                    .average()
-                    .orElse(0.0);
-            examAverages.put(exam.getTitle(), avg);
+        for (ExamScoreStats stats : examStats) {
+            double avg = stats.getAverageScore() != null ? stats.getAverageScore() : 0.0;
+            examAverages.put(stats.getTitle(), avg);
+            totalScore += avg * stats.getSubmissions();
+            totalPassed += stats.getPassed() != null ? stats.getPassed() : 0;
+        }
+        
+        Map<String, Long> overallGradeDistribution = new HashMap<>();
+        for (GradeCount gradeCount : examResultRepository.countGradesByTeacherId(teacherId)) {
+            overallGradeDistribution.put(gradeCount.getGrade(), gradeCount.getCount());
         }
-        performance.put("examAverages", examAverages);
         
-        Map<String, Long> overallGradeDistribution = allResults.stream()
-                .collect(Collectors.groupingBy(ExamResult::getGrade, Collectors.counting()));
+        Map<String, Object> performance = new HashMap<>();
+        performance.put("totalExams", examStats.size());
+        performance.put("totalStudents", examResultRepository.countDistinctStudentsByTeacherId(teacherId));
+        performance.put("totalSubmissions", totalSubmissions);
+        performance.put("overallAverageScore", totalScore / totalSubmissions);
+        performance.put("overallPassRate", totalPassed * 100.0 / totalSubmissions);
+        performance.put("examAverages", examAverages);
         performance.put("gradeDistribution", overallGradeDistribution);
         
         return performance;
@@ -214,6 +239,7 @@ public class TeacherService {
         
         // Save exam to database
         examRepository.save(exam);
+        examCacheService.evictExamListings();
         log.info("Exam created in database: {}", examId);
         
         List<Map<String, Object>> results = new ArrayList<>();
@@ -258,7 +284,7 @@ public class TeacherService {
                     .createdAt(Instant.now())
                     .build();
             
-            examResultRepository.save(examResult);
+            examResultService.saveResult(examResult);
             log.info("Saved AI correction result for Student {}: {}% - {}", (i + 1), score, gradeResult);
             
             results.add(Map.of(
@@ -0,0 +1,249 @@
+package com.examino.ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU disk cache in front of a remote BlobStore. Reads are
+ * served from the cache directory when possible and fetched once on a miss;
+ * uploads are written through to both tiers, since freshly uploaded papers
+ * are the ones most likely to be downloaded next. Every path handed out pins
+ * its blob for a lease (callers such as sendfile open the file after
+ * getLocalPath returns), and eviction skips pinned blobs.
+ */
+@Slf4j
+public class TieredBlobStore implements BlobStore {
+
+    private static final String HASH_PATTERN = "[0-9a-f]{64}";
+
+    private final BlobStore remote;
+    private final LocalBlobStore cache;
+    private final Path tempLocation;
+    private final long maxBytes;
+    private final long pinMillis;
+
+    // Access-ordered: iteration starts at the least recently used blob.
+    // Cache files are only created, admitted or unlinked while holding this lock.
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Long> pinnedUntil = new HashMap<>();
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong pinnedSkips = new AtomicLong();
+    private final AtomicLong cacheBytesServed = new AtomicLong();
+    private final AtomicLong remoteBytesServed = new AtomicLong();
+
+    public TieredBlobStore(BlobStore remote, Path cacheRoot, Path tempLocation, long maxBytes, long pinMillis) throws IOException {
+        this.remote = remote;
+        this.cache = new LocalBlobStore(cacheRoot);
+        this.tempLocation = tempLocation;
+        this.maxBytes = maxBytes;
+        this.pinMillis = pinMillis;
+        Files.createDirectories(cacheRoot);
+        loadExistingEntries(cacheRoot);
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName() + "+disk-cache";
+    }
+
+    @Override
+    public boolean exists(String hash) throws IOException {
+        synchronized (entries) {
+            if (entries.containsKey(hash)) {
+                return true;
+            }
+        }
+        return remote.exists(hash);
+    }
+
+    @Override
+    public void write(String hash, Path source) throws IOException {
+        remote.write(hash, source);
+        long size = Files.size(source);
+        synchronized (entries) {
+            cache.write(hash, source);
+            admit(hash, size);
+        }
+    }
+
+    @Override
+    public void copyTo(String hash, Path target) throws IOException {
+        if (pinIfCached(hash)) {
+            cache.copyTo(hash, target);
+        } else {
+            remote.copyTo(hash, target);
+        }
+    }
+
+    @Override
+    public Path getLocalPath(String hash) throws IOException {
+        if (pinIfCached(hash)) {
+            Path path = cache.blobPath(hash);
+            if (Files.isRegularFile(path)) {
+                hits.incrementAndGet();
+                cacheBytesServed.addAndGet(Files.size(path));
+                return path;
+            }
+            forget(hash);
+        }
+        
+        misses.incrementAndGet();
+        if (!remote.exists(hash)) {
+            return null;
+        }
+        Path temp = tempLocation.resolve("fetch-" + UUID.randomUUID());
+        try {
+            remote.copyTo(hash, temp);
+            long size = Files.size(temp);
+            synchronized (entries) {
+                cache.write(hash, temp);
+                admit(hash, size);
+                pin(hash);
+            }
+            remoteBytesServed.addAndGet(size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return cache.blobPath(hash);
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        remote.delete(hash);
+        synchronized (entries) {
+            forget(hash);
+            cache.delete(hash);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>(remote.getStatistics());
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        statistics.put("backend", getName());
+        statistics.put("cacheHits", hitCount);
+        statistics.put("cacheMisses", misses.get());
+        statistics.put("cacheHitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        statistics.put("cacheEvictions", evictions.get());
+        statistics.put("cachePinnedSkips", pinnedSkips.get());
+        statistics.put("cacheBytesServed", cacheBytesServed.get());
+        statistics.put("remoteBytesServed", remoteBytesServed.get());
+        synchronized (entries) {
+            statistics.put("cacheEntries", entries.size());
+            statistics.put("cacheBytes", cachedBytes);
+            statistics.put("cachePinned", pinnedUntil.size());
+        }
+        statistics.put("cacheMaxBytes", maxBytes);
+        return statistics;
+    }
+
+    private boolean pinIfCached(String hash) {
+        synchronized (entries) {
+            if (entries.get(hash) == null) {
+                return false;
+            }
+            pin(hash);
+            return true;
+        }
+    }
+
+    // Caller holds the entries lock
+    private void pin(String hash) {
+        pinnedUntil.put(hash, System.currentTimeMillis() + pinMillis);
+    }
+
+    // Caller holds the entries lock
+    private boolean isPinned(String hash, long now) {
+        Long until = pinnedUntil.get(hash);
+        if (until == null) {
+            return false;
+        }
+        if (until > now) {
+            return true;
+        }
+        pinnedUntil.remove(hash);
+        return false;
+    }
+
+    /**
+     * Caller holds the entries lock, so a victim cannot be re-fetched and
+     * re-admitted between being dropped here and its file being unlinked.
+     */
+    private void admit(String hash, long size) {
+        Long previous = entries.put(hash, size);
+        cachedBytes += size - (previous == null ? 0 : previous);
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        // Always keep the blob just admitted, even if it alone exceeds the budget
+        while (cachedBytes > maxBytes && entries.size() > 1 && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            if (entry.getKey().equals(hash)) {
+                continue;
+            }
+            if (isPinned(entry.getKey(), now)) {
+                pinnedSkips.incrementAndGet();
+                continue;
+            }
+            try {
+                cache.delete(entry.getKey());
+            } catch (IOException e) {
+                log.warn("Could not evict cached blob {}: {}", entry.getKey(), e.getMessage());
+                continue;
+            }
+            cachedBytes -= entry.getValue();
+            evictions.incrementAndGet();
+            eldest.remove();
+        }
+    }
+
+    private void forget(String hash) {
+        synchronized (entries) {
+            Long size = entries.remove(hash);
+            if (size != null) {
+                cachedBytes -= size;
+            }
+            pinnedUntil.remove(hash);
+        }
+    }
+
+    private void loadExistingEntries(Path cacheRoot) throws IOException {
+        try (Stream<Path> files = Files.walk(cacheRoot, 3)) {
+            List<Path> cached = files
+                    .filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().matches(HASH_PATTERN))
+                    .sorted(Comparator.comparingLong(TieredBlobStore::lastModified))
+                    .toList();
+            synchronized (entries) {
+                for (Path path : cached) {
+                    admit(path.getFileName().toString(), Files.size(path));
+                }
+            }
+        }
+        log.info("Blob cache initialised with {} entries ({} bytes)", entries.size(), cachedBytes);
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.examino.ai.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * True/false questions, accepting the usual spellings of each value.
+ */
+@Component
+public class TrueFalseQuestionGrader implements QuestionGrader {
+
+    private static final Set<String> TRUE_VALUES = Set.of("true", "t", "yes", "y", "correct", "right", "1");
+    private static final Set<String> FALSE_VALUES = Set.of("false", "f", "no", "n", "incorrect", "wrong", "0");
+
+    @Override
+    public Set<String> getTypes() {
+        return Set.of("TRUE_FALSE", "TRUEFALSE", "BOOLEAN");
+    }
+
+    @Override
+    public AiGradingService.GradingResult grade(String questionText, String expectedAnswer, String studentAnswer, int totalMarks) {
+        Boolean expected = parse(expectedAnswer);
+        if (expected == null) {
+            return null;
+        }
+        Boolean student = parse(studentAnswer);
+        if (student == null) {
+            return new AiGradingService.GradingResult(0, 0, "Answer must be true or false", false);
+        }
+        if (expected.equals(student)) {
+            return new AiGradingService.GradingResult(totalMarks, 100, "Correct", true);
+        }
+        return new AiGradingService.GradingResult(0, 0, "Incorrect - the statement is " + expected, false);
+    }
+
+    private static Boolean parse(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        if (TRUE_VALUES.contains(normalized)) {
+            return Boolean.TRUE;
+        }
+        if (FALSE_VALUES.contains(normalized)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+}
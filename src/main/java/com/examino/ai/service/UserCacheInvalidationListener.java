@@ -0,0 +1,24 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on User that keeps {@link UserCacheService} consistent with
+ * every write path, not only the ones that remember to evict.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final UserCacheService userCacheService;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userCacheService.invalidate(user.getUserId());
+    }
+}
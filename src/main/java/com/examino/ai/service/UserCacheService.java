@@ -0,0 +1,50 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of User profiles by id. Entries are invalidated by
+ * {@link UserCacheInvalidationListener} whenever a User row changes.
+ */
+@Service
+public class UserCacheService {
+
+    private final Cache<String, User> users;
+
+    public UserCacheService(@Value("${cache.user.max-entries:20000}") long maxEntries,
+                            @Value("${cache.user.ttl-minutes:30}") long ttlMinutes) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public User get(String userId, Function<String, User> loader) {
+        return users.get(userId, loader);
+    }
+
+    public void invalidate(String userId) {
+        users.invalidate(userId);
+    }
+
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = users.stats();
+        return Map.of(
+            "entries", users.estimatedSize(),
+            "hits", stats.hitCount(),
+            "misses", stats.missCount(),
+            "evictions", stats.evictionCount(),
+            "hitRatio", Math.round(stats.hitRate() * 10000.0) / 100.0
+        );
+    }
+}
@@ -0,0 +1,286 @@
+package com.examino.ai.service;
+
+import com.examino.ai.model.Exam;
+import com.examino.ai.model.Question;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local answer similarity from hashed n-gram vectors. Each answer becomes a
+ * sparse vector of word unigrams, word bigrams and character 3/4-grams of
+ * lightly stemmed words, hashed into a fixed feature space and weighted by
+ * TF-IDF. Document frequencies are kept per exam and built once from the
+ * exam's questions and expected answers, so words the whole exam uses carry
+ * little weight; scoring never changes them, which keeps a grade independent
+ * of the order answers arrive in. Similarity is the cosine of the two
+ * L2-normalized vectors.
+ */
+@Component
+public class VectorAnswerScorer {
+
+    private static final int FEATURE_BITS = 20;
+    private static final int FEATURE_MASK = (1 << FEATURE_BITS) - 1;
+    private static final int WORD = 0;
+    private static final int BIGRAM = 1;
+    private static final int CHAR_GRAM = 2;
+    private static final float[] KIND_WEIGHTS = {1.0f, 0.5f, 0.3f};
+    private static final int MIN_WORDS_FOR_NO_CREDIT = 3;
+
+    /** Sparse vector: strictly increasing feature indexes with their weights. */
+    record SparseVector(int[] indexes, float[] weights) {
+    }
+
+    /** Document frequencies for one corpus; filled once when the exam is registered. */
+    static final class IdfTable {
+        private final AtomicInteger documents = new AtomicInteger();
+        private final Map<Integer, AtomicInteger> documentFrequency = new ConcurrentHashMap<>();
+
+        void addDocument(int[] features) {
+            documents.incrementAndGet();
+            for (int feature : features) {
+                documentFrequency.computeIfAbsent(feature, key -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+
+        float idf(int feature) {
+            AtomicInteger frequency = documentFrequency.get(feature);
+            int df = frequency == null ? 0 : frequency.get();
+            return (float) (Math.log((documents.get() + 1.0) / (df + 1.0)) + 1.0);
+        }
+    }
+
+    private static final IdfTable NO_CORPUS = new IdfTable();
+
+    private final Cache<String, IdfTable> corpora;
+    private final Cache<String, String> examByQuestion;
+    private final double fullCreditSimilarity;
+    private final double noCreditSimilarity;
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder comparisonNanos = new LongAdder();
+    private final LongAdder keyTermEscalations = new LongAdder();
+
+    public VectorAnswerScorer(@Value("${grading.vector.full-credit-similarity:0.9}") double fullCreditSimilarity,
+                              @Value("${grading.vector.no-credit-similarity:0.1}") double noCreditSimilarity,
+                              @Value("${grading.vector.max-exams:500}") long maxExams) {
+        this.fullCreditSimilarity = fullCreditSimilarity;
+        this.noCreditSimilarity = noCreditSimilarity;
+        this.corpora = Caffeine.newBuilder().maximumSize(maxExams).expireAfterAccess(Duration.ofDays(7)).build();
+        this.examByQuestion = Caffeine.newBuilder().maximumSize(maxExams * 100).expireAfterAccess(Duration.ofDays(7)).build();
+    }
+
+    /** Seeds the exam's document frequencies once; later calls are a cache lookup. */
+    public void registerExam(Exam exam) {
+        if (exam == null || exam.getQuestions() == null) {
+            return;
+        }
+        corpora.get(exam.getExamId(), examId -> {
+            IdfTable table = new IdfTable();
+            for (Question question : exam.getQuestions()) {
+                examByQuestion.put(question.getQuestionId(), examId);
+                addDocument(table, question.getQuestionText());
+                addDocument(table, question.getExpectedAnswer());
+            }
+            return table;
+        });
+    }
+
+    /**
+     * Cosine similarity in [0, 1] between the expected and the student
+     * answer, weighted by the IDF of the question's exam. Without a
+     * registered exam every feature weighs the same. Read-only.
+     */
+    public double similarity(String questionId, String expectedAnswer, String studentAnswer) {
+        String examId = questionId == null ? null : examByQuestion.getIfPresent(questionId);
+        IdfTable table = examId == null ? null : corpora.getIfPresent(examId);
+        if (table == null) {
+            table = NO_CORPUS;
+        }
+        
+        long start = System.nanoTime();
+        SparseVector expectedTerms = termFrequencies(expectedAnswer);
+        SparseVector studentTerms = termFrequencies(studentAnswer);
+        double similarity = cosine(vectorize(expectedTerms, table), vectorize(studentTerms, table));
+        comparisonNanos.add(System.nanoTime() - start);
+        comparisons.increment();
+        return similarity;
+    }
+
+    /**
+     * Decides an answer only when the similarity is clearly high or clearly
+     * low; anything in between returns null so a stronger grader can look.
+     * Full credit also needs the same numbers and negations as the expected
+     * answer, since "does not dissolve" scores close to "dissolves". A one- or two-word expected answer is never failed locally, since a
+     * synonym ("sea" for "ocean") shares no n-grams with it.
+     */
+    public AiGradingService.GradingResult gradeIfConfident(String questionId, String expectedAnswer,
+                                                           String studentAnswer, int totalMarks) {
+        double similarity = similarity(questionId, expectedAnswer, studentAnswer);
+        int accuracy = (int) Math.round(similarity * 100);
+        if (similarity >= fullCreditSimilarity) {
+            if (KeyTerms.contradict(MinHasher.normalize(expectedAnswer), MinHasher.normalize(studentAnswer))) {
+                keyTermEscalations.increment();
+                return null;
+            }
+            return new AiGradingService.GradingResult(totalMarks, accuracy, "Matches the expected answer", true);
+        }
+        if (similarity <= noCreditSimilarity && wordCount(expectedAnswer) >= MIN_WORDS_FOR_NO_CREDIT) {
+            return new AiGradingService.GradingResult(0, accuracy, "Answer does not match expected response", false);
+        }
+        return null;
+    }
+
+    public Map<String, Object> getStatistics() {
+        long count = comparisons.sum();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("corpora", corpora.estimatedSize());
+        statistics.put("comparisons", count);
+        statistics.put("averageComparisonMicros", count == 0 ? 0.0 : comparisonNanos.sum() / 1000.0 / count);
+        statistics.put("keyTermEscalations", keyTermEscalations.sum());
+        statistics.put("fullCreditSimilarity", fullCreditSimilarity);
+        statistics.put("noCreditSimilarity", noCreditSimilarity);
+        return statistics;
+    }
+
+    private static void addDocument(IdfTable table, String text) {
+        if (text != null && !text.isBlank()) {
+            table.addDocument(termFrequencies(text).indexes());
+        }
+    }
+
+    /**
+     * Raw feature weights of a text. Features are collected as packed
+     * (feature, kind) longs and merged after one sort, so no map or boxing is
+     * involved.
+     */
+    static SparseVector termFrequencies(String text) {
+        String normalized = MinHasher.normalize(text);
+        if (normalized.isEmpty()) {
+            return new SparseVector(new int[0], new float[0]);
+        }
+        String[] words = normalized.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            words[i] = stem(words[i]);
+        }
+        long[] packed = new long[words.length * 2 + normalized.length() * 2 + 8];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            packed = ensureCapacity(packed, count + 2 + (words[i].length() + 2) * 2);
+            packed[count++] = pack(hash(1, words[i], 0, words[i].length()), WORD);
+            if (i + 1 < words.length) {
+                String bigram = words[i] + ' ' + words[i + 1];
+                packed[count++] = pack(hash(2, bigram, 0, bigram.length()), BIGRAM);
+            }
+            // Character grams of the padded word catch spelling slips and shared roots
+            String padded = ' ' + words[i] + ' ';
+            for (int size = 3; size <= 4; size++) {
+                for (int start = 0; start + size <= padded.length(); start++) {
+                    packed[count++] = pack(hash(size, padded, start, start + size), CHAR_GRAM);
+                }
+            }
+        }
+        Arrays.sort(packed, 0, count);
+        
+        int[] indexes = new int[count];
+        float[] weights = new float[count];
+        int distinct = -1;
+        for (int i = 0; i < count; i++) {
+            int feature = (int) (packed[i] >>> 8);
+            if (distinct < 0 || indexes[distinct] != feature) {
+                indexes[++distinct] = feature;
+            }
+            weights[distinct] += KIND_WEIGHTS[(int) (packed[i] & 0xFF)];
+        }
+        return new SparseVector(Arrays.copyOf(indexes, distinct + 1), Arrays.copyOf(weights, distinct + 1));
+    }
+
+    static SparseVector vectorize(SparseVector terms, IdfTable table) {
+        int[] indexes = terms.indexes();
+        float[] weights = new float[indexes.length];
+        double norm = 0;
+        for (int i = 0; i < indexes.length; i++) {
+            // Sublinear term frequency keeps a repeated word from dominating
+            float weight = (float) Math.log1p(terms.weights()[i]) * table.idf(indexes[i]);
+            weights[i] = weight;
+            norm += (double) weight * weight;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] *= scale;
+            }
+        }
+        return new SparseVector(indexes, weights);
+    }
+
+    /** Dot product of two normalized sparse vectors by merging their index lists. */
+    static double cosine(SparseVector a, SparseVector b) {
+        int[] left = a.indexes();
+        int[] right = b.indexes();
+        float[] leftWeights = a.weights();
+        float[] rightWeights = b.weights();
+        int i = 0;
+        int j = 0;
+        double dot = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] == right[j]) {
+                dot += leftWeights[i++] * rightWeights[j++];
+            } else if (left[i] < right[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return Math.max(0, Math.min(1, dot));
+    }
+
+    // Plural and common verb endings only; enough for "evaporates" and "evaporated" to share a word feature
+    static String stem(String word) {
+        if (word.length() <= 3 || word.chars().anyMatch(Character::isDigit)) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        for (String suffix : new String[]{"ing", "ed"}) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                return word.substring(0, word.length() - suffix.length());
+            }
+        }
+        return word;
+    }
+
+    private static int wordCount(String text) {
+        String normalized = MinHasher.normalize(text);
+        return normalized.isEmpty() ? 0 : normalized.split(" ").length;
+    }
+
+    private static long pack(int feature, int kind) {
+        return ((long) feature << 8) | kind;
+    }
+
+    private static long[] ensureCapacity(long[] packed, int required) {
+        return required <= packed.length ? packed : Arrays.copyOf(packed, Math.max(required, packed.length * 2));
+    }
+
+    private static int hash(int namespace, String text, int start, int end) {
+        int hash = 0x811C9DC5 ^ namespace;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x01000193;
+        }
+        hash ^= hash >>> 16;
+        return hash & FEATURE_MASK;
+    }
+}